@@ -10,8 +10,8 @@ max: 500
 - Emission - 
 lowMin: 0.0
 lowMax: 0.0
-highMin: 200.0
-highMax: 200.0
+highMin: 600.0
+highMax: 600.0
 relative: false
 scalingCount: 1
 scaling0: 1.0
@@ -130,7 +130,7 @@ timeline2: 0.55479455
 timeline3: 1.0
 - Options - 
 attached: false
-continuous: false
+continuous: true
 aligned: false
 additive: true
 behind: false
@@ -0,0 +1,25 @@
+package io.github.lionisaqt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/** Measures the bullet engine: firing a volley and clearing it, and one tick of bullets flying at a few
+ * enemies. Bullets that leave or hit something are topped back up so the count stays steady. */
+public class BulletEngineBenchmark extends GameBenchmark {
+    @Override
+    void populate() {
+        for (int i = 0; i < 10; i++) spawnEnemy(false);
+        screen.director.buildGrid();
+    }
+
+    @Benchmark
+    public void fireVolley() {
+        for (int i = 0; i < entities; i++) fireBullet(randomX(), playerPos.y, true);
+        screen.bullets.clear();
+    }
+
+    @Benchmark
+    public void update() {
+        while (screen.bullets.size < entities) fireBullet(randomX(), playerPos.y, true);
+        screen.bullets.update(DELTA_TIME, screen.getPlayer(), screen.director);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.lionisaqt.benchmarks;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.github.lionisaqt.actors.Enemy;
+import io.github.lionisaqt.utils.B2dContactListener;
+
+/** Measures recording contacts through the contact listener and dispatching them as if the world had stepped. Every enemy is sitting on the player; the contacts are taken from the world after one step and fed to the listener again every invocation. */
+public class ContactListenerBenchmark extends GameBenchmark {
+    private B2dContactListener listener;
+    private final Array<Contact> contacts = new Array<>();
+
+    @Override
+    void populate() {
+        listener = new B2dContactListener(screen.tManager);
+        for (int i = 0; i < entities; i++) {
+            Enemy e = spawnEnemy(false);
+            e.setPosition(playerPos.x, playerPos.y);
+        }
+
+        screen.world.step(DELTA_TIME, 6, 2);
+        contacts.clear();
+        contacts.addAll(screen.world.getContactList());
+    }
+
+    @Benchmark
+    public void beginContact() {
+        for (int i = 0; i < contacts.size; i++) listener.beginContact(contacts.get(i));
+        listener.dispatch();
+    }
+}
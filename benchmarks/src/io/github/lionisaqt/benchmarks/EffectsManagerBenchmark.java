@@ -0,0 +1,45 @@
+package io.github.lionisaqt.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.utils.EffectPool;
+import io.github.lionisaqt.utils.EffectsManager;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Measures one frame of particle effects. Finished effects are replaced within the same frame, so this includes
+ * the pool churn of effects being started and freed. Engine trails are continuous and keep running. Caps are lifted
+ * so every effect can start, but the particle budget still applies, so this measures the governed cost. */
+public class EffectsManagerBenchmark extends GameBenchmark {
+    private EffectsManager eManager;
+
+    @Override
+    void populate() {
+        eManager = screen.eManager;
+        for (EffectPool pool : eManager.pools) pool.cap = entities;
+        topUp();
+    }
+
+    @Benchmark
+    public void update() {
+        eManager.update(DELTA_TIME, 1);
+        topUp();
+    }
+
+    /** Starts effects until there are as many as being measured, mixing deaths, explosions and engine trails. Stops
+     * early if the budget won't allow any more. */
+    private void topUp() {
+        for (int started = eManager.liveEffects; started < entities; started++) {
+            EffectPool pool;
+            switch (started % 3) {
+                case 0: pool = eManager.enemyDeathPool; break;
+                case 1: pool = eManager.effectPool; break;
+                default: pool = eManager.enemyEnginePool; break;
+            }
+            if (eManager.start(pool, randomX(), MathUtils.random(JuicyShmup.GAME_HEIGHT) * PPM, 1) == null) break;
+        }
+    }
+}
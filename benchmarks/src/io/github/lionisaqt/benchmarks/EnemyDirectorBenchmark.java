@@ -0,0 +1,18 @@
+package io.github.lionisaqt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/** Measures one tick of enemy AI, including sorting enemies into the grid. One in four enemies is a dogfighter. The world is never stepped, so enemies
+ * stay where they were placed; the director may still spawn a few more over an iteration. */
+public class EnemyDirectorBenchmark extends GameBenchmark {
+    @Override
+    void populate() {
+        for (int i = 0; i < entities; i++) spawnEnemy(i % 4 == 0);
+    }
+
+    @Benchmark
+    public void update() {
+        screen.director.buildGrid();
+        screen.director.update(DELTA_TIME, PLAYER_HP, playerPos);
+    }
+}
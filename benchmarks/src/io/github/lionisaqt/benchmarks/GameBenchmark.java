@@ -0,0 +1,83 @@
+package io.github.lionisaqt.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.actors.Enemy;
+import io.github.lionisaqt.headless.Headless;
+import io.github.lionisaqt.screens.InGame;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Base for benchmarks that need a live game. A fresh headless in-game screen is made for every iteration, and
+ * subclasses fill it with the number of entities being measured. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class GameBenchmark {
+    /* One game per fork, since it holds all the loaded assets */
+    private static JuicyShmup game;
+
+    static final float DELTA_TIME = 1 / 60f;
+    static final int PLAYER_HP = 1000;
+
+    @Param({"10", "100", "1000", "5000"})
+    public int entities;
+
+    InGame screen;
+    final Vector2 playerPos = new Vector2(JuicyShmup.GAME_WIDTH / 2 * PPM, 100 * PPM);
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (game == null) game = Headless.createGame();
+        game.random.setSeed(0);
+        screen = new InGame(game);
+        MathUtils.random.setSeed(0);
+        populate();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() { screen.dispose(); }
+
+    /** Fills the screen with whatever is being measured. */
+    abstract void populate();
+
+    /** Spawns an enemy through the director's pools and places it on the playfield.
+     * @param dogfighter Whether to spawn a dogfighter instead of a kamikaze
+     * @return The spawned enemy */
+    Enemy spawnEnemy(boolean dogfighter) {
+        Enemy e = dogfighter ? screen.director.dogfighterPool.obtain() : screen.director.enemyPool.obtain();
+        e.init();
+        e.setPosition(randomX(), MathUtils.random(JuicyShmup.GAME_HEIGHT / 2, JuicyShmup.GAME_HEIGHT) * PPM);
+        screen.director.enemies.add(e);
+        return e;
+    }
+
+    /** Fires a bullet through the screen's bullet engine.
+     * @param x Initial x position
+     * @param y Initial y position
+     * @param friendly Whether the bullet is the player's */
+    void fireBullet(float x, float y, boolean friendly) { screen.bullets.fire(x, y, friendly); }
+
+    /** @return A random x position within the playfield */
+    float randomX() { return MathUtils.random(JuicyShmup.GAME_WIDTH) * PPM; }
+}
@@ -0,0 +1,23 @@
+package io.github.lionisaqt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.github.lionisaqt.utils.LightManager;
+
+/** Measures ranking and raycasting every light, with one engine light per enemy on top of the player's lights and
+ * the background stars. Only the desktop budget of lights is cast. */
+public class LightManagerBenchmark extends GameBenchmark {
+    private LightManager lights;
+
+    @Override
+    void populate() {
+        lights = screen.eManager.lightManager;
+        for (int i = 0; i < entities; i++) spawnEnemy(false);
+    }
+
+    @Benchmark
+    public void update() {
+        lights.rank(playerPos, lights.frame);
+        lights.cast(lights.frame);
+    }
+}
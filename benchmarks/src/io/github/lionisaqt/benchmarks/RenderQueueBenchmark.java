@@ -0,0 +1,40 @@
+package io.github.lionisaqt.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.utils.EffectPool;
+import io.github.lionisaqt.utils.EffectsManager;
+import io.github.lionisaqt.utils.RenderQueue;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Measures queueing and sorting one frame of sprites: an enemy, a bullet and an effect per entity, on top of the
+ * background. Nothing is drawn, so this is the cost the queue adds before the batch sees anything. */
+public class RenderQueueBenchmark extends GameBenchmark {
+    private final RenderQueue queue = new RenderQueue();
+
+    @Override
+    void populate() {
+        EffectsManager eManager = screen.eManager;
+        for (EffectPool pool : eManager.pools) pool.cap = entities;
+
+        for (int i = 0; i < entities; i++) {
+            spawnEnemy(i % 2 == 0);
+            fireBullet(randomX(), MathUtils.random(JuicyShmup.GAME_HEIGHT) * PPM, i % 2 == 0);
+            eManager.start(i % 2 == 0 ? eManager.effectPool : eManager.enemyEnginePool, randomX(),
+                    MathUtils.random(JuicyShmup.GAME_HEIGHT) * PPM, 1);
+        }
+
+        /* Effects only have particles to draw once they've run a little */
+        for (int i = 0; i < 10; i++) eManager.update(DELTA_TIME, 1);
+    }
+
+    @Benchmark
+    public int queue() {
+        screen.queueWorld(queue);
+        return queue.drawCalls;
+    }
+}
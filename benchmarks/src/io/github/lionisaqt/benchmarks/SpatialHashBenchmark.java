@@ -0,0 +1,51 @@
+package io.github.lionisaqt.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.actors.Enemy;
+import io.github.lionisaqt.utils.SpatialHash;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Measures the director's grid: sorting every enemy into it, then asking what's near each of them, both by
+ * radius and by the closest few. */
+public class SpatialHashBenchmark extends GameBenchmark {
+    private SpatialHash<Enemy> grid;
+    private final Array<Enemy> found = new Array<>();
+    private float[] queryX, queryY;
+
+    @Override
+    void populate() {
+        for (int i = 0; i < entities; i++) spawnEnemy(false);
+        screen.director.buildGrid();
+        grid = screen.director.grid;
+
+        queryX = new float[entities];
+        queryY = new float[entities];
+        for (int i = 0; i < entities; i++) {
+            queryX[i] = randomX();
+            queryY[i] = MathUtils.random(JuicyShmup.GAME_HEIGHT) * PPM;
+        }
+    }
+
+    @Benchmark
+    public void build() { screen.director.buildGrid(); }
+
+    @Benchmark
+    public int findInRadius() {
+        int total = 0;
+        for (int i = 0; i < entities; i++) total += grid.findInRadius(queryX[i], queryY[i], 2.5f, found);
+        return total;
+    }
+
+    @Benchmark
+    public int findNearest() {
+        int total = 0;
+        for (int i = 0; i < entities; i++) total += grid.findNearest(queryX[i], queryY[i], 4, found);
+        return total;
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.lionisaqt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/** Measures one physics step with every entity as an enemy. Bullets aren't in the world anymore. */
+public class WorldStepBenchmark extends GameBenchmark {
+    @Override
+    void populate() {
+        for (int i = 0; i < entities; i++) spawnEnemy(false);
+    }
+
+    @Benchmark
+    public void step() { screen.world.step(DELTA_TIME, 6, 2); }
+}
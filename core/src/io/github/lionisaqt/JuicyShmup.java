@@ -1,15 +1,19 @@
 package io.github.lionisaqt;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 
-import java.util.Random;
-
+import io.github.lionisaqt.screens.Loading;
 import io.github.lionisaqt.screens.MainMenu;
 import io.github.lionisaqt.utils.Assets;
+import io.github.lionisaqt.utils.Randoms;
+import io.github.lionisaqt.utils.StartupTimings;
 
 /** The main game class.
  * @author Ryan Shee */
@@ -23,45 +27,108 @@ public class JuicyShmup extends Game {
 	public static final short ITEM_BIT = 16;
 
 	public final Assets assets = new Assets();
+	public final StartupTimings timings = new StartupTimings();
+	public final Randoms random = new Randoms(TimeUtils.millis());	// Every random number, reseed for a repeatable run
+	private static final int LOAD_MILLIS = 10;	// Most time each frame spends finishing loaded assets
+	private boolean loaded;						// Whether every asset is loaded
 	public SpriteBatch batch;
 
 	public Skin skin;
 	public boolean debug = false;
 
+	/* Simulation only, nothing is drawn and there is no HUD */
+	public final boolean headless;
+
+	/* Replay to record every run's input to, or to play runs back from instead of the player */
+	public FileHandle record, replay;
+
+	/* Whether gameplay simulates on its own thread while this one only draws, see InGame */
+	public boolean threaded;
+
 	public Array<Music> playlist = new Array<>();
 	public Music currentSong;
 
+	public JuicyShmup() { this(false); }
+
+	/** Constructs the game.
+	 * @param headless Whether the game only simulates, e.g. when there is no display */
+	public JuicyShmup(boolean headless) { this.headless = headless; }
+
+	/** Starts loading and shows the loading screen. Assets stream in a few milliseconds per frame, so the window
+	 * stays responsive; headless games load everything up front instead, since nothing is shown. */
 	@Override
 	public void create() {
+		timings.created = timings.mark("Created");
 		assets.load();
-		assets.manager.finishLoading(); // Moves on only when finished loading
-        batch = new SpriteBatch();
-		skin = assets.manager.get(assets.skin);
 
-		playlist.add(assets.manager.get(assets.bgm1));
-		playlist.add(assets.manager.get(assets.bgm2));
-		playlist.add(assets.manager.get(assets.bgm3));
-		currentSong = playlist.get(new Random().nextInt(playlist.size));
-		currentSong.play();
+		if (headless) {
+			finishLoading();
+			return;
+		}
 
-		this.setScreen(new MainMenu(this));
+		batch = new SpriteBatch();
+		this.setScreen(new Loading(this));
 	}
 
 	@Override
 	public void render() {
-		if (!currentSong.isPlaying()) {
-			currentSong = playlist.get(new Random().nextInt(playlist.size));
+		if (!loaded) stream();
+		else if (!currentSong.isPlaying()) {
+			currentSong = playlist.get(random.audio.nextInt(playlist.size));
 			currentSong.play();
 
 		}
 		super.render();
+
+		if (timings.firstFrame < 0) timings.firstFrame = timings.mark("First frame");
+	}
+
+	/** Spends a little time on loading. Moves on to the main menu as soon as the skin is in, and starts the music
+	 * once everything else is. */
+	private void stream() {
+		boolean done = assets.manager.update(LOAD_MILLIS);
+		if (skin == null && assets.isMenuLoaded()) menuLoaded();
+		if (done) gameLoaded();
+	}
+
+	/** Loads whatever is left right away. Called when gameplay starts, in case it starts before streaming is done. */
+	public void finishLoading() {
+		if (loaded) return;
+
+		assets.manager.finishLoading();
+		if (skin == null) menuLoaded();
+		gameLoaded();
+	}
+
+	/** Takes the skin and shows the main menu. */
+	private void menuLoaded() {
+		skin = assets.manager.get(assets.skin);
+		timings.menuReady = timings.mark("Menu ready");
+
+		if (!headless) {
+			Screen loading = getScreen();
+			this.setScreen(new MainMenu(this));
+			loading.dispose();
+		}
+	}
+
+	/** Starts the music once every asset is in. */
+	private void gameLoaded() {
+		loaded = true;
+		timings.gameReady = timings.mark("Game ready");
+
+		playlist.add(assets.manager.get(assets.bgm1));
+		playlist.add(assets.manager.get(assets.bgm2));
+		playlist.add(assets.manager.get(assets.bgm3));
+		currentSong = playlist.get(random.audio.nextInt(playlist.size));
+		currentSong.play();
 	}
 	
 	@Override
 	public void dispose() {
-		getScreen().dispose();
-		skin.dispose();
-		batch.dispose();
+		if (getScreen() != null) getScreen().dispose();
+		if (skin != null) skin.dispose();
+		if (batch != null) batch.dispose();
 		assets.dispose();
 	}
 }
@@ -0,0 +1,223 @@
+package io.github.lionisaqt.actors;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.components.TransformComponent;
+import io.github.lionisaqt.utils.LightManager;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Every live bullet, kept in flat columns instead of Box2D bodies. Bullets are moved in bulk, hit tested
+ * against enemies and the player by hand, and swap-removed when they hit something, leave the screen or
+ * run out of time. Nothing is allocated once the columns are big enough. */
+public class BulletEngine {
+    private static final int FRIENDLY = 0, HOSTILE = 1;   // Owners, also indices into kinds
+
+    private InGame screen;
+
+    public final Bullet friendly, hostile;  // What bullets of each side share
+    private final Bullet[] kinds;
+
+    /* Bullet columns, one slot per live bullet */
+    private float[] x, y, prevX, prevY, vx, vy, life;
+    private int[] damage, owner;
+    public int size;    // Number of live bullets
+
+    private final Array<Enemy> nearby = new Array<>();    // Enemies close enough to a bullet to check
+
+    private float alpha;    // How far the frame is between the last tick and the next
+
+    /** Constructs an empty bullet engine.
+     * @param game Reference to the game for assets
+     * @param screen Reference for in-game stuff
+     * @param capacity How many bullets fit before the columns grow */
+    public BulletEngine(JuicyShmup game, InGame screen, int capacity) {
+        this.screen = screen;
+        friendly = new Bullet(game, screen.sounds, true);
+        hostile = new Bullet(game, screen.sounds, false);
+        kinds = new Bullet[] { friendly, hostile };
+
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new float[capacity];
+        damage = new int[capacity];
+        owner = new int[capacity];
+    }
+
+    /** Fires a bullet straight up if friendly, or straight down if not.
+     * @param x Initial x position
+     * @param y Initial y position
+     * @param friendly Whether bullet is friendly */
+    public void fire(float x, float y, boolean friendly) {
+        Bullet kind = friendly ? this.friendly : hostile;
+        if (size == this.x.length) grow();
+
+        int i = size++;
+        this.x[i] = prevX[i] = x;
+        this.y[i] = prevY[i] = y;
+        vx[i] = 0;
+        vy[i] = friendly ? kind.speed : -kind.speed;
+        life[i] = kind.lifetime;
+        damage[i] = kind.dmg;
+        owner[i] = friendly ? FRIENDLY : HOSTILE;
+
+        screen.sounds.play(kind.pew, 0.25f);
+    }
+
+    /** Remembers where every bullet is before the tick, so they can be drawn between ticks. */
+    public void savePositions() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    /** Called every tick. Moves every bullet, then checks what they hit.
+     * @param deltaTime Time since the last tick
+     * @param player The player, hit by hostile bullets
+     * @param director The enemies' director, whose grid finds what friendly bullets can hit */
+    public void update(float deltaTime, Player player, EnemyDirector director) {
+        float top = JuicyShmup.GAME_HEIGHT * PPM;
+
+        /* Move everything, dropping bullets that are offscreen or too old */
+        for (int i = size - 1; i >= 0; i--) {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+            life[i] -= deltaTime;
+
+            float halfHeight = kinds[owner[i]].sprite.getHeight() * kinds[owner[i]].sprite.getScaleY() / 2;
+            if (life[i] <= 0 || y[i] + halfHeight > top || y[i] + halfHeight < 0) remove(i);
+        }
+
+        TransformComponent playerTransform = player.transform;
+
+        /* Friendly bullets check the enemies near them, hostile bullets check the player */
+        for (int i = size - 1; i >= 0; i--) {
+            float radius = kinds[owner[i]].radius;
+
+            if (owner[i] == FRIENDLY) {
+                director.grid.findInRadius(x[i], y[i], radius + director.reach, nearby);
+                for (int n = 0; n < nearby.size; n++) {
+                    Enemy e = nearby.get(n);
+                    if (e.health.hp <= 0) continue;   // Already dead, let the rest fly through
+
+                    if (overlaps(i, radius, e.transform)) {
+                        hit(i, e);
+                        break;
+                    }
+                }
+            } else if (player.health.hp > 0 && overlaps(i, radius, playerTransform))
+                hit(i, player);
+        }
+
+        nearby.clear();
+    }
+
+    /** Circle vs box test between a bullet and an entity's body.
+     * @param i Index of the bullet
+     * @param radius The bullet's hit radius
+     * @param t Where the entity is and how big its body is
+     * @return Whether they touch */
+    private boolean overlaps(int i, float radius, TransformComponent t) {
+        float dx = Math.abs(x[i] - t.position.x) - t.halfWidth;
+        float dy = Math.abs(y[i] - t.position.y) - t.halfHeight;
+        if (dx < 0) dx = 0;
+        if (dy < 0) dy = 0;
+        return dx * dx + dy * dy < radius * radius;
+    }
+
+    /** Deals a bullet's damage to what it hit, then kills the bullet.
+     * @param i Index of the bullet
+     * @param target What the bullet hit */
+    private void hit(int i, SpaceEntity target) {
+        screen.collisions.damage(target.health, damage[i]);
+        if (target.faction.isPlayer) screen.tManager.addTrauma(target.faction.impact);
+
+        Bullet kind = kinds[owner[i]];
+
+        /* Explosion light effect */
+        screen.eManager.flash(LightManager.BULLET, kind.color, 1500 * kind.impact * PPM, x[i], y[i]);
+
+        screen.sounds.play(kind.deathSound);
+        screen.tManager.addTrauma(kind.impact);
+        remove(i);
+    }
+
+    /** Moves every bullet to where it's drawn between ticks.
+     * @param alpha How far the frame is between the last tick and the next, from 0 to 1 */
+    public void interpolate(float alpha) { this.alpha = alpha; }
+
+    /** Draws every bullet, tinted by side.
+     * @param batch The batch to draw with */
+    public void draw(Batch batch) {
+        Color tint = batch.getColor();
+        float r = tint.r, g = tint.g, b = tint.b, a = tint.a;
+
+        for (int i = 0; i < size; i++) {
+            Bullet kind = kinds[owner[i]];
+
+            float width = kind.sprite.getWidth() * kind.sprite.getScaleX();
+            float height = kind.sprite.getHeight() * kind.sprite.getScaleY();
+            float drawX = prevX[i] + (x[i] - prevX[i]) * alpha;
+            float drawY = prevY[i] + (y[i] - prevY[i]) * alpha;
+
+            batch.setColor(kind.color);
+            batch.draw(kind.sprite, drawX - width / 2, drawY - height / 2, width, height);
+        }
+
+        batch.setColor(r, g, b, a);
+    }
+
+    /** Removes a bullet by moving the last bullet into its slot.
+     * @param i Index of the bullet */
+    private void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        life[i] = life[last];
+        damage[i] = damage[last];
+        owner[i] = owner[last];
+    }
+
+    /** Removes every bullet. */
+    public void clear() {
+        size = 0;
+        nearby.clear();
+    }
+
+    /** Doubles the size of every bullet column. */
+    private void grow() {
+        int capacity = Math.max(8, x.length * 2);
+        x = resize(x, capacity);
+        y = resize(y, capacity);
+        prevX = resize(prevX, capacity);
+        prevY = resize(prevY, capacity);
+        vx = resize(vx, capacity);
+        vy = resize(vy, capacity);
+        life = resize(life, capacity);
+        damage = resize(damage, capacity);
+        owner = resize(owner, capacity);
+    }
+
+    private static float[] resize(float[] array, int capacity) {
+        float[] resized = new float[capacity];
+        System.arraycopy(array, 0, resized, 0, Math.min(array.length, capacity));
+        return resized;
+    }
+
+    private static int[] resize(int[] array, int capacity) {
+        int[] resized = new int[capacity];
+        System.arraycopy(array, 0, resized, 0, Math.min(array.length, capacity));
+        return resized;
+    }
+}
@@ -1,12 +1,11 @@
 package io.github.lionisaqt.actors;
 
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 
-import box2dLight.PointLight;
 import io.github.lionisaqt.JuicyShmup;
 import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.GameLight;
+import io.github.lionisaqt.utils.LightManager;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
@@ -21,7 +20,7 @@ public class Dogfighter extends Enemy {
     private final float reloadDuration;
 
     /* Muzzle flash lights */
-    private PointLight muzzleFlash;
+    private GameLight muzzleFlash;
 
     /* Number of shots per burst */
     private final int burstNum;
@@ -30,10 +29,10 @@ public class Dogfighter extends Enemy {
     Dogfighter(JuicyShmup game, InGame screen, EnemyDirector director) {
         super(game, screen, director);
         scale = 0.25f * PPM;
-        info.maxHp = 100;
-        info.hp = info.maxHp;
-        info.dmg = 10;
-        info.impact = 0.3f;
+        health.maxHp = 100;
+        health.hp = health.maxHp;
+        faction.dmg = 10;
+        faction.impact = 0.3f;
         fireDelay = 0.2f;
         reloadDuration = 1f;
         reloadTimer = reloadDuration;
@@ -41,74 +40,77 @@ public class Dogfighter extends Enemy {
         numShots = burstNum;
     }
 
+    @Override
+    void prepare() {
+        super.prepare();    // Body is sized like a kamikaze's, as it always has been
+
+        sprite.setRegion(game.assets.region(game.assets.dogfighter));
+        sprite.flip(false, true);
+    }
+
     @Override
     public void init() {
         super.init();
-
-        sprite.setTexture(game.assets.manager.get(game.assets.dogfighter));
         initializeFlash();
     }
 
     @Override
-    public void update(float deltaTime, int playerHp, Vector2 playerPos) {
-        if (info.hp <= 0) {
-            die();
-            return;
+    void steer(int i, int playerHp, Vector2 playerPos) {
+        Vector2 position = transform.position;
+        float x = 0, y = speed;
+        boolean engaging = false;
+
+        if (playerHp > 0 && position.y > playerPos.y) {
+            float dx = position.x - playerPos.x, dy = position.y - playerPos.y;
+            float distance = (float)Math.sqrt(dx * dx + dy * dy);
+            x = velocity.linear.x + (position.x < playerPos.x ? 1 : -1) * -speed / 2 / distance;
+
+            // Stop tracking if within certain x range, used so it doesn't shake from decimal inequality
+            if (Math.abs(position.x - playerPos.x) < 0.25f) x = 0;
+
+            // Begin engaging at certain range
+            if (distance < 20) {
+                engaging = true;
+                y = 0;
+
+                // Keep distance from player
+                if (distance < 15) y = -speed / 1.25f;
+            }
         }
 
-        if (playerHp > 0) {
-	        if (body.getPosition().y > playerPos.y) {
-		        body.setLinearVelocity(body.getLinearVelocity().x + (body.getPosition().x < playerPos.x ? 1 : -1) * (float)(-info.speed / 2 / Math.hypot(body.getPosition().x - playerPos.x, body.getPosition().y - playerPos.y)), info.speed);
-
-		        // Stop tracking if within certain x range, used so it doesn't shake from decimal inequality
-		        if (Math.abs(body.getPosition().x - playerPos.x) < 0.25f)
-			        body.setLinearVelocity(0, body.getLinearVelocity().y);
-
-		        // Begin engaging at certain range
-		        if (Math.hypot(body.getPosition().x - playerPos.x, body.getPosition().y - playerPos.y) < 20) {
-			        body.setLinearVelocity(body.getLinearVelocity().x, 0);
-
-			        // Keep distance from player
-			        if (Math.hypot(body.getPosition().x - playerPos.x, body.getPosition().y - playerPos.y) < 15)
-				        body.setLinearVelocity(body.getLinearVelocity().x, - info.speed / 1.25f);
+        director.steerX[i] = x;
+        director.steerY[i] = y;
+        director.engaging[i] = engaging;
+    }
 
-			        shoot(deltaTime);
-		        }
-	        } else body.setLinearVelocity(0, info.speed);
-        } else body.setLinearVelocity(0, info.speed);
+    @Override
+    void act(int i, float deltaTime) {
+        if (health.hp <= 0) return;     // Died this tick, and leaves the set at the end of it
 
-        muzzleFlash.setPosition(body.getPosition().x, body.getPosition().y - 1.25f);
+        velocity.linear.set(director.steerX[i], director.steerY[i]);
+        if (director.engaging[i]) shoot(deltaTime);
         update(deltaTime);
     }
 
-    @Override
-    public void draw(SpriteBatch batch) { super.draw(batch); }
-
-    /** Fires a bullet, obtained from the pool. Adds trauma.
-     * @param deltaTime time since last frame was called */
+    /** Fires a bullet. Adds trauma.
+     * @param deltaTime time since the last tick */
     private void shoot(float deltaTime) {
         if (numShots > 0) {
-            shotTimer -= deltaTime / screen.timeMultiplier;
+            shotTimer -= deltaTime;
             if (shotTimer <= 0) {
                 numShots--;
                 muzzleFlash.setActive(true);
 
-                ParticleEffectPool.PooledEffect p = screen.eManager.enemyShotPool.obtain();
-                p.setPosition(body.getPosition().x, body.getPosition().y - 1);
-                p.scaleEffect(scale, -scale);
-                p.start();
-                screen.eManager.effects.add(p);
+                screen.eManager.start(screen.eManager.enemyShotPool, transform.position.x, transform.position.y - 1, scale, -scale);
 
-                Bullet b = screen.bulletPool.obtain();                              // Obtain a bullet from pool, or creates one if a free bullet is unavailable
-                b.init(body.getPosition().x, body.getPosition().y, false);  // Initializes bullet
-                screen.bullets.add(b);                                              // Adds bullet to list of active bullets
+                screen.bullets.fire(transform.position.x, transform.position.y, false); // Fires a bullet
                 shotTimer += fireDelay;                                             // Add delay for next shot
             } else {
                 muzzleFlash.setActive(false);
             }
         } else {
             muzzleFlash.setActive(false);
-            reloadTimer -= deltaTime / screen.timeMultiplier;
+            reloadTimer -= deltaTime;
             if (reloadTimer <= 0) {
                 numShots = burstNum;
                 reloadTimer = reloadDuration;
@@ -116,25 +118,23 @@ public class Dogfighter extends Enemy {
         }
     }
 
-    /** Initializes muzzle flash animations and lights. */
+    /** Takes the muzzle flash light from the light manager's pool, off until the dogfighter shoots. */
     private void initializeFlash() {
-        muzzleFlash = new PointLight(screen.eManager.rayHandler, 128, color, 100 * PPM, body.getPosition().x, body.getPosition().y);
-        muzzleFlash.setStaticLight(false);
-        muzzleFlash.setSoft(true);
+        muzzleFlash = screen.eManager.lightManager.obtain(LightManager.ENEMY, color, 100 * PPM, transform.position.x, transform.position.y - 1.25f);
         muzzleFlash.setActive(false);
+        lights.add(muzzleFlash, 0, -1.25f);
     }
 
     @Override
-    public void free() {
-        director.enemies.removeValue(this, false);
+    void release() {
+        screen.entities.removeValue(entity, true);
         director.dogfighterPool.free(this);
         director.currDF--;
     }
 
     @Override
     public void reset() {
-        super.reset();
-        muzzleFlash.remove(true);
+        super.reset();      // Frees the muzzle flash along with the engine light
         muzzleFlash = null;
     }
 }
@@ -1,17 +1,13 @@
 package io.github.lionisaqt.actors;
 
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Pool.Poolable;
 
-import java.util.Random;
-
-import box2dLight.PointLight;
 import io.github.lionisaqt.JuicyShmup;
 import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.LightManager;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
@@ -21,9 +17,6 @@ public class Enemy extends SpaceEntity implements Poolable {
     /* Reference to director for the pool and enemy array */
     EnemyDirector director;
 
-    /* Enemy-specific death sound */
-    private Sound enemyDeathSound;
-
     /** Constructs a new enemy.
      * @param game Reference to the game for assets
      * @param screen Reference for in-game stuff
@@ -32,115 +25,111 @@ public class Enemy extends SpaceEntity implements Poolable {
         super(game, screen);
         this.director = director;
         scale = 0.2f * PPM;
-        info.maxHp = 50;
-        info.hp = info.maxHp;
-        info.dmg = 100;
-        info.speed = -8;
-        info.impact = 0.25f;
-        info.friendly = false;
-        info.isPlayer = false;
+        health.maxHp = 50;
+        health.hp = health.maxHp;
+        faction.dmg = 100;
+        speed = -8;
+        faction.impact = 0.25f;
+        faction.friendly = false;
+        faction.isPlayer = false;
+    }
+
+    /** Makes the sprite, color and body, out of the world until the enemy is first used. Called when the pool makes
+     * the enemy, so that's not done on the tick it spawns. */
+    void prepare() {
+        setSprite(new Sprite(game.assets.region(game.assets.kamikaze)));
+        sprite.flip(false, true);
+        sprite.setScale(scale);
+        color = new Color(faction.friendly ? 0 : 1, faction.friendly ? 1 : 0, 0, 1);
+
+        makeBody(0, -JuicyShmup.GAME_HEIGHT * PPM, "square");
+        body.setActive(false);
     }
 
-    /** Initializes important values if they're null, called after getting an enemy from the pool. */
+    /** Resets the enemy for a new spawn, called after getting it from the pool. Lights and effects come from their
+     * own pools. */
     public void init() {
-        if (sprite == null) {
-            sprite = new Sprite(game.assets.manager.get(game.assets.kamikaze));
-            sprite.flip(false, true);
-            sprite.setScale(scale);
-        }
-
-        if (body == null) {
-            makeBody((new Random().nextFloat() * JuicyShmup.GAME_WIDTH * PPM - sprite.getWidth() * sprite.getScaleX() * 2) + sprite.getWidth() * sprite.getScaleX() * 2, JuicyShmup.GAME_HEIGHT * PPM + (new Random().nextFloat() * 10 * sprite.getHeight() * sprite.getScaleY() / 2), "square");
-            body.setUserData(info);
-            body.setLinearVelocity(0, info.speed);
-            sprite.setPosition(body.getPosition().x, body.getPosition().y);
-        }
-
-        if (color == null)
-            color = new Color(info.friendly ? 0 : 1, info.friendly ? 1 : 0, 0, 1);
-        else
-            color.set(info.friendly ? 0 : 1, info.friendly ? 1 : 0, 0, 1);
+        float x = (game.random.gameplay.nextFloat() * JuicyShmup.GAME_WIDTH * PPM - sprite.getWidth() * sprite.getScaleX() * 2) + sprite.getWidth() * sprite.getScaleX() * 2;
+        float y = JuicyShmup.GAME_HEIGHT * PPM + (game.random.gameplay.nextFloat() * 10 * sprite.getHeight() * sprite.getScaleY() / 2);
+        reuseBody(x, y);
+        velocity.linear.set(0, speed);
+
+        color.set(faction.friendly ? 0 : 1, faction.friendly ? 1 : 0, 0, 1);
 
         /* Engine light */
-        if (light == null) {
-            light = new PointLight(screen.eManager.rayHandler, 128, color, 100 * PPM, body.getPosition().x, body.getPosition().y);
-            light.setStaticLight(false);
-            light.setSoft(true);
-            light.setPosition(body.getPosition().x, body.getPosition().y + 1.1f);
-        }
-
-	    enemyDeathSound = game.assets.manager.get(game.assets.kill1);
-        deathSound = new Random().nextBoolean() ? game.assets.manager.get(game.assets.death1) : game.assets.manager.get(game.assets.death2);
+        lights.add(screen.eManager.lightManager.obtain(LightManager.ENEMY, color, 100 * PPM, x, y + 1), 0, 1);
+
+        /* Engine particle effects! */
+        startEmitter(screen.eManager.enemyEnginePool, 0, 0.75f);
+
+        deathSound = game.random.sounds.nextBoolean() ? screen.sounds.explode1 : screen.sounds.explode2;
+
+        screen.entities.add(entity);
     }
 
     @Override
     public void update(float deltaTime) {
-        sprite.setPosition(body.getPosition().x - sprite.getWidth() / 2, body.getPosition().y - sprite.getHeight() / 2);
-        light.setPosition(body.getPosition().x, body.getPosition().y + 1);
-
-        /* Engine particle effects! */
-        PooledEffect p = screen.eManager.enemyEnginePool.obtain();
-        p.setPosition(body.getPosition().x, body.getPosition().y + 0.75f);
-        p.scaleEffect(scale);
-        p.start();
-        screen.eManager.effects.add(p);
-
         /* Checks to make sure body speed is constant */
-        if (Math.abs(body.getLinearVelocity().x) >= Math.abs(info.speed)) body.setLinearVelocity(body.getLinearVelocity().x > 0 ? -info.speed : info.speed, body.getLinearVelocity().y);
+        if (Math.abs(velocity.linear.x) >= Math.abs(speed)) velocity.linear.x = velocity.linear.x > 0 ? -speed : speed;
 
         /* Kills enemy if offscreen */
-        if (body.getPosition().y + sprite.getHeight() * sprite.getScaleY() * 2 < 0) free();
+        if (transform.position.y + sprite.getHeight() * sprite.getScaleY() * 2 < 0) free();
     }
 
-    /** Enemy-specific update method. Default enemy tries to snake and kamikaze into player.
-     * @param deltaTime Time since last frame was called
+    /** Works out where the enemy wants to go this tick without changing anything, so every enemy can be steered at
+     * once on several threads. Default enemy tries to snake and kamikaze into player.
+     * @param i Index of the enemy, which is where its steering goes in the director
      * @param playerHp Player's current hp
-     * @param  playerPos Position to target */
-    public void update(float deltaTime, int playerHp, Vector2 playerPos) {
-        if (info.hp <= 0) {
-            die();
-            return;
-        }
-
-        if (playerHp > 0)
-	        body.setLinearVelocity(body.getLinearVelocity().x + (body.getPosition().x < playerPos.x ? 1 : -1) * (float)(-info.speed / 4 / Math.hypot(body.getPosition().x - playerPos.x, body.getPosition().y - playerPos.y)), info.speed);
-        else
-        	body.setLinearVelocity(0, info.speed);
+     * @param playerPos Position to target */
+    void steer(int i, int playerHp, Vector2 playerPos) {
+        Vector2 position = transform.position;
+        if (playerHp > 0) {
+            float dx = position.x - playerPos.x, dy = position.y - playerPos.y;
+            float distance = (float)Math.sqrt(dx * dx + dy * dy);
+            director.steerX[i] = velocity.linear.x + (position.x < playerPos.x ? 1 : -1) * -speed / 4 / distance;
+        } else
+            director.steerX[i] = 0;
+        director.steerY[i] = speed;
+    }
 
+    /** Acts on this tick's steering, on the game thread, once every enemy has steered.
+     * @param i Index of the enemy, which is where its steering is in the director
+     * @param deltaTime Time since the last tick */
+    void act(int i, float deltaTime) {
+        if (health.hp <= 0) return;     // Died this tick, and leaves the set at the end of it
+
+        velocity.linear.set(director.steerX[i], director.steerY[i]);
         update(deltaTime);
     }
 
     @Override
     public void die() {
-    	deathSound.play();
-    	enemyDeathSound.play();
+        screen.sounds.play(deathSound);
+        screen.sounds.play(screen.sounds.kill);  // Enemy-specific death sound
 
-        PooledEffect p = screen.eManager.enemyDeathPool.obtain();
-        p.setPosition(body.getPosition().x, body.getPosition().y);
-        p.scaleEffect(scale * 5);
-        p.start();
-        screen.eManager.effects.add(p);
+        screen.eManager.start(screen.eManager.enemyDeathPool, transform.position.x, transform.position.y, scale * 5);
 
         screen.setGameSpeed(2f);
-        screen.addScore(info.maxHp);
+        screen.addScore(health.maxHp);
         super.die();
         free();
     }
 
-    /** Removes enemy from the active array of enemies and frees it from the pool. Sends body to the
-     * array of dead bodies for processing. */
-    public void free() {
-        director.enemies.removeValue(this, false);
+    /** Removes enemy from the active set of enemies at the end of the tick. Its body is kept out of the world
+     * until the enemy is used again. */
+    public void free() { director.enemies.remove(this); }
+
+    /** Removes enemy from the screen's entities and frees it to the pool, once it has left the active set. */
+    void release() {
+        screen.entities.removeValue(entity, true);
         director.enemyPool.free(this);
     }
 
     @Override
     public void reset() {
-        light.remove(true);
-        light = null;
-        color = null;
-        body = null;
-        sprite = null;
-        info.hp = info.maxHp;
+        lights.freeAll(screen.eManager.lightManager);
+        emitter.release();
+        body.setActive(false);      // Body, sprite and color are kept for the next init
+        health.hp = health.maxHp;
     }
 }
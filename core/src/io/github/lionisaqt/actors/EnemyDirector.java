@@ -1,13 +1,16 @@
 package io.github.lionisaqt.actors;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Pool;
 
 import io.github.lionisaqt.JuicyShmup;
 import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.ActiveSet;
+import io.github.lionisaqt.utils.CountedPool;
+import io.github.lionisaqt.utils.SpatialHash;
+import io.github.lionisaqt.utils.Workers;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
 
 public class EnemyDirector {
     private InGame screen;
@@ -34,9 +37,27 @@ public class EnemyDirector {
     private float baseBaronTimer;
     private float baseAceTimer;
 
-    public Array<Enemy> enemies;
-    public Pool<Enemy> enemyPool;
-    public Pool<Dogfighter> dogfighterPool;
+    public final ActiveSet<Enemy> enemies;
+    public final SpatialHash<Enemy> grid;   // Where every enemy was after the last world step
+    float reach;                            // Farthest any enemy in the grid reaches from its centre, corners included
+
+    /* Steering columns, one slot per active enemy, filled in by every worker at once */
+    float[] steerX = new float[64], steerY = new float[64];    // Velocity each enemy wants
+    boolean[] engaging = new boolean[64];                       // Whether each dogfighter is close enough to shoot
+    private int steerHp;                    // The player's hp, for the workers
+    private Vector2 steerTarget;            // Where the player is, for the workers
+    private final Workers.Job steering = new Workers.Job() {
+        @Override
+        public void run(int from, int to, int worker) {
+            for (int i = from; i < to; i++) {
+                Enemy e = enemies.get(i);
+                if (e.health.hp > 0) e.steer(i, steerHp, steerTarget);
+            }
+        }
+    };
+    public final CountedPool<Enemy> enemyPool;
+    public final CountedPool<Dogfighter> dogfighterPool;
+    private static final int SPARE_ENEMIES = 16, SPARE_DOGFIGHTERS = 2;     // Made up front, going by the pool stats
 
     /* Current spawn timers */
     private float noobSpawnTimer, vetSpawnTimer, proSpawnTimer, eliteSpawnTimer, baronSpawnTimer, aceSpawnTimer;
@@ -73,20 +94,36 @@ public class EnemyDirector {
         maxDF = 1;
         currDF = 0;
 
-        enemies = new Array<>();
+        enemies = new ActiveSet<Enemy>() {
+            @Override
+            protected void removed(Enemy e) { e.release(); }
+        };
+        grid = new SpatialHash<>(JuicyShmup.GAME_WIDTH * PPM, JuicyShmup.GAME_HEIGHT * PPM, 2.5f);
         EnemyDirector director = this;
-        enemyPool = new Pool<Enemy>() {
+        enemyPool = new CountedPool<Enemy>("enemies") {
             @Override
-            protected Enemy newObject() { return new Enemy(game, screen, director); }
+            protected Enemy newObject() {
+                Enemy e = new Enemy(game, screen, director);
+                e.prepare();
+                return e;
+            }
         };
-        dogfighterPool = new Pool<Dogfighter>() {
+        dogfighterPool = new CountedPool<Dogfighter>("dogfighters") {
             @Override
-            protected Dogfighter newObject() { return new Dogfighter(game, screen, director); }
+            protected Dogfighter newObject() {
+                Dogfighter d = new Dogfighter(game, screen, director);
+                d.prepare();
+                return d;
+            }
         };
+
+        /* Sprites and bodies are made now, not on the tick the first wave spawns */
+        enemyPool.prewarm(SPARE_ENEMIES);
+        dogfighterPool.prewarm(SPARE_DOGFIGHTERS);
     }
 
-    /** Called every frame. Handles any logic.
-     * @param deltaTime Time since last frame was called
+    /** Called every tick. Handles any logic.
+     * @param deltaTime Time since the last tick
      * @param playerHp Player's current hp
      * @param playerPos Player's position */
     public void update(float deltaTime, int playerHp, Vector2 playerPos) {
@@ -94,6 +131,7 @@ public class EnemyDirector {
         updateEnemies(deltaTime, playerHp, playerPos);
         updateDifficulty();
         updateDelta(deltaTime);
+        enemies.flush();    // Enemies freed this tick go back to their pools
     }
 
     /** Spawns enemy. Calculates spawn of all tiers. */
@@ -104,7 +142,7 @@ public class EnemyDirector {
             case ELITE:
             case PRO:
             case VET:
-                vetSpawnTimer -= deltaTime / screen.timeMultiplier;
+                vetSpawnTimer -= deltaTime;
                 if (vetSpawnTimer <= 0 && currDF < maxDF) {
                     vetSpawnTimer = baseVetTimer;
                     Dogfighter d = dogfighterPool.obtain();
@@ -113,7 +151,7 @@ public class EnemyDirector {
                     currDF++;
                 }
             case NOOB:
-                noobSpawnTimer -= deltaTime / screen.timeMultiplier;
+                noobSpawnTimer -= deltaTime;
                 if (noobSpawnTimer <= 0) {
                     noobSpawnTimer = baseNoobTimer;
                     Enemy e = enemyPool.obtain();
@@ -126,8 +164,25 @@ public class EnemyDirector {
         }
     }
 
+    /** Steers every enemy at once, split over the workers, then has each act on it in order on this thread. Only
+     * acting changes anything, so it comes out the same however many workers there are.
+     * @param deltaTime Time since the last tick
+     * @param playerHp Player's current hp
+     * @param playerPos Player's position */
     private void updateEnemies(float deltaTime, int playerHp, Vector2 playerPos) {
-        for (Enemy e : enemies) e.update(deltaTime, playerHp, playerPos);
+        if (steerX.length < enemies.size) {
+            int capacity = Math.max(enemies.size, steerX.length * 2);
+            steerX = new float[capacity];
+            steerY = new float[capacity];
+            engaging = new boolean[capacity];
+        }
+
+        steerHp = playerHp;
+        steerTarget = playerPos;
+        screen.workers.run(steering, enemies.size);
+        steerTarget = null;
+
+        for (int i = 0; i < enemies.size; i++) enemies.get(i).act(i, deltaTime);
     }
 
     /** Updates difficulty based on raw score. Should never go down. */
@@ -173,16 +228,22 @@ public class EnemyDirector {
         }
     }
 
-    /** Draws all enemies.
-     * @param batch The SpriteBatch used for drawing */
-    public void draw(SpriteBatch batch) {
-        for (Enemy e : enemies) e.draw(batch);
+    /** Sorts every enemy into the grid where it is now. Called every tick after the world steps. */
+    public void buildGrid() {
+        grid.clear();
+        reach = 0;
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy e = enemies.get(i);
+            grid.add(e, e.transform.position.x, e.transform.position.y);
+            float hw = e.transform.halfWidth, hh = e.transform.halfHeight;
+            reach = Math.max(reach, (float)Math.sqrt(hw * hw + hh * hh));
+        }
+        grid.build();
     }
 
     /** Frees all active enemies back to pool and clears the active enemy array. */
     public void dispose() {
-        for (int i = enemies.size -1 ; i >= 0; i--)
-            enemies.get(i).free();  // Frees all enemies back to pool
-        enemies.clear();            // Clears current enemies array
+        enemies.clear();            // Frees all enemies back to pool
+        grid.clear();               // Drops the grid's references to them
     }
 }
@@ -1,21 +1,20 @@
 package io.github.lionisaqt.actors;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 
-import java.util.Random;
 
-import box2dLight.PointLight;
 import io.github.lionisaqt.JuicyShmup;
 import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.Command;
+import io.github.lionisaqt.utils.GameLight;
+import io.github.lionisaqt.utils.LightManager;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
@@ -37,10 +36,10 @@ public class Player extends SpaceEntity {
     private boolean isShooting;
 
     /* Muzzle flash lights */
-    private PointLight muzzleLightLeft, muzzleLightRight;
+    private GameLight muzzleLightLeft, muzzleLightRight;
 
-    /* Ensures death effect only plays once */
-    private boolean deathEffectPlay = true;
+    /* Engine light */
+    private GameLight light;
 
     /** Constructs a new player at the given coordinates.
      * @param game Reference to the game for assets
@@ -51,36 +50,38 @@ public class Player extends SpaceEntity {
         super(game, screen);
         scale = 0.25f * PPM;
         fireDelay = 0.1f;
-        info.maxHp = 1000;
-        info.hp = info.maxHp;
-        info.dmg = 100;
-        info.speed = 15;
-        info.impact = 1f;
-        info.friendly = true;
-        info.isPlayer = true;
-
-        sprite = new Sprite(game.assets.manager.get(game.assets.ship));
+        health.maxHp = 1000;
+        health.hp = health.maxHp;
+        faction.dmg = 100;
+        speed = 15;
+        faction.impact = 1f;
+        faction.friendly = true;
+        faction.isPlayer = true;
+
+        setSprite(new Sprite(game.assets.region(game.assets.ship)));
         sprite.setScale(scale);
 
         makeBody(x, y, "square");
-        body.setUserData(info);
-        sprite.setPosition(body.getPosition().x, body.getPosition().y);
 
-        color = new Color(info.friendly ? 0 : 1, info.friendly ? 1 : 0, 0, 1);
+        color = new Color(faction.friendly ? 0 : 1, faction.friendly ? 1 : 0, 0, 1);
 
         /* Engine light */
-        light = new PointLight(screen.eManager.rayHandler, 128, color, 150 * PPM, body.getPosition().x, body.getPosition().y);
-        light.setStaticLight(false);
-        light.setSoft(true);
-        light.setPosition(body.getPosition().x, body.getPosition().y - 1);
+        light = screen.eManager.lightManager.obtain(LightManager.PLAYER, color, 150 * PPM, x, y - 1.1f);
+        lights.add(light, 0, -1.1f);
 
         initializeFlash();
+
+        /* Engine particle effects! */
+        startEmitter(screen.eManager.enginePool, 0, -1);
+
+        screen.entities.add(entity);
     }
 
     @Override
     public void update(float deltaTime) {
-        if (info.hp <= 0) {
-            playerDie();
+        /* Slow-mo for as long as the player is dead */
+        if (health.hp <= 0) {
+            screen.timeMultiplier = 5f;
             return;
         }
 
@@ -92,132 +93,88 @@ public class Player extends SpaceEntity {
 
         /* Except when shooting */
         if (isShooting) {
-            Random rng = new Random();
-            muzzleLightLeft.setActive(rng.nextBoolean());
-            muzzleLightRight.setActive(rng.nextBoolean());
+            muzzleLightLeft.setActive(game.random.cosmetic.nextBoolean());
+            muzzleLightRight.setActive(game.random.cosmetic.nextBoolean());
             flashRight.flip(true, false);
         }
-
-        /* Engine particle effects! */
-        PooledEffect p = screen.eManager.enginePool.obtain();
-        p.setPosition(body.getPosition().x, body.getPosition().y - 1);
-        p.scaleEffect(scale);
-        p.start();
-        screen.eManager.effects.add(p);
     }
 
-    /** Handles input and sets velocity accordingly, and makes sprite follow body.
-     * @param deltaTime Time since the last frame was called */
+    /** Handles this tick's command and sets velocity accordingly.
+     * @param deltaTime Time since the last tick */
     private void handleInput(float deltaTime) {
-        float xSpeed = 0;
-        float ySpeed = 0;
-
-        switch (Gdx.app.getType()) {
-            case Android:
-            case iOS:
-                xSpeed = Gdx.input.getAccelerometerX() * -info.speed;
-                ySpeed = Gdx.input.getAccelerometerY() * -info.speed;
-                if (Gdx.input.isTouched()) shoot(deltaTime);
-                else isShooting = false;
-                break;
-            case Desktop:
-                if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) xSpeed += -info.speed;
-                if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) xSpeed += info.speed;
-                if (Gdx.input.isKeyPressed(Input.Keys.UP)) ySpeed += info.speed;
-                if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) ySpeed += -info.speed;
-                if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) shoot(deltaTime);
-                if (Gdx.input.isKeyJustPressed(Input.Keys.K)) info.hp = 0;
-                else isShooting = false;
-            default:
-                break;
-        }
+        Command command = screen.command;
 
-        /* Caps speed */
-        if (Math.abs(xSpeed) > info.speed) xSpeed = (xSpeed / Math.abs(xSpeed)) * info.speed;
-        if (Math.abs(ySpeed) > info.speed) ySpeed = (ySpeed / Math.abs(ySpeed)) * info.speed;
+        if (command.isDown(Command.SHOOT)) shoot(deltaTime);
+        else isShooting = false;
+        if (command.isDown(Command.SELF_DESTRUCT)) screen.collisions.kill(health);
 
-        body.setLinearVelocity(xSpeed, ySpeed);
-
-        light.setPosition(body.getPosition().x, body.getPosition().y - 1.1f);
-        muzzleLightLeft.setPosition(body.getPosition().x - 1.25f, body.getPosition().y + 1);
-        muzzleLightRight.setPosition(body.getPosition().x + 1.25f, body.getPosition().y + 1);
-
-        sprite.setPosition(body.getPosition().x - sprite.getWidth() / 2, body.getPosition().y - sprite.getHeight() / 2);
-        flashLeft.setPosition(body.getPosition().x - 2, body.getPosition().y + 0.25f);
-        flashRight.setPosition(body.getPosition().x, body.getPosition().y + 0.25f);
+        velocity.linear.set(command.getMoveX() * speed, command.getMoveY() * speed);
 
         stayInBounds();
     }
 
-    /** Fires a bullet, obtained from the pool. Adds trauma.
-     * @param deltaTime time since last frame was called */
+    /** Fires a bullet. Adds trauma.
+     * @param deltaTime time since the last tick */
     private void shoot(float deltaTime) {
         isShooting = true;
-        shotTimer -= deltaTime / screen.timeMultiplier; // Run timer between shots
+        shotTimer -= deltaTime; // Run timer between shots
 
         /* Play animation based on time */
         flashLeft.setRegion(shoot.getKeyFrame(stateTimer));
         flashRight.setRegion(shoot.getKeyFrame(stateTimer));
 
         if (shotTimer <= 0) {
-            PooledEffect p = screen.eManager.shotPool.obtain();
-            p.setPosition(body.getPosition().x, body.getPosition().y + 1);
-            p.scaleEffect(scale);
-            p.start();
-            screen.eManager.effects.add(p);
-
-            Bullet b = screen.bulletPool.obtain();                              // Obtain a bullet from pool, or creates one if a free bullet is unavailable
-            b.init(body.getPosition().x, body.getPosition().y, true);   // Initializes bullet
-            screen.bullets.add(b);                                              // Adds bullet to list of active bullets
-            screen.tManager.addTrauma(b.info.impact);                           // Adds impact to trauma manager
+            screen.eManager.start(screen.eManager.shotPool, transform.position.x, transform.position.y + 1, scale);
+
+            screen.bullets.fire(transform.position.x, transform.position.y, true);  // Fires a bullet
+            screen.tManager.addTrauma(screen.bullets.friendly.impact);              // Adds impact to trauma manager
             shotTimer += fireDelay;                                             // Add delay for next shot
             stateTimer += deltaTime;                                            // Adds time to animation timer
         }
     }
 
     /** Player-specific death effects. */
-    private void playerDie() {
-    	if (deathEffectPlay) {
-    		deathEffectPlay = false;
-		    body.setActive(false);
+    @Override
+    public void die() {
+        body.setActive(false);
 
-		    sprite.setAlpha(0);
-		    flashLeft.setAlpha(0);
-		    flashRight.setAlpha(0);
+        sprite.setAlpha(0);
+        flashLeft.setAlpha(0);
+        flashRight.setAlpha(0);
 
-		    muzzleLightLeft.setActive(false);
-		    muzzleLightRight.setActive(false);
-		    light.setActive(false);
+        muzzleLightLeft.setActive(false);
+        muzzleLightRight.setActive(false);
+        light.setActive(false);
+        emitter.release();
 
-		    screen.tManager.addTrauma(info.impact);
+        screen.tManager.addTrauma(faction.impact);
 
-		    // Explosion light effect
-		    PointLight p = screen.eManager.lightPool.obtain();
-		    p.setColor(color);
-		    p.setDistance(2500 * info.impact * PPM);
-		    p.setPosition(body.getPosition());
-		    screen.eManager.lightEffects.add(p);
-		    game.currentSong.setVolume(0.25f);
+        // Explosion light effect
+        screen.eManager.flash(LightManager.PLAYER, color, 2500 * faction.impact * PPM, transform.position.x, transform.position.y);
+        screen.requestSongVolume(0.25f);
 
-		    for (Enemy e : screen.director.enemies) e.info.hp = 0;
-	    }
+        for (int i = 0; i < screen.director.enemies.size; i++) screen.collisions.kill(screen.director.enemies.get(i).health);
 
-    	screen.timeMultiplier = 5f;
+        screen.timeMultiplier = 5f;
     }
 
-    public void draw(SpriteBatch batch) {
-        super.draw(batch);
+    /** Draws the muzzle flashes over the ship while shooting. The ship itself is drawn with every other entity.
+     * @param batch The batch to draw with */
+    public void drawFlashes(Batch batch) {
         if (isShooting) {
+            flashLeft.setPosition(transform.render.x - 2, transform.render.y + 0.25f);
+            flashRight.setPosition(transform.render.x, transform.render.y + 0.25f);
             flashLeft.draw(batch);
             flashRight.draw(batch);
         }
     }
 
     private void initializeFlash() {
-        TextureRegion flashAnim = new TextureRegion(game.assets.manager.get(game.assets.flash), 0, 0, 32, 32);
+        TextureRegion flashSheet = game.assets.region(game.assets.flash);
+        TextureRegion flashAnim = new TextureRegion(flashSheet, 0, 0, 32, 32);
         Array<TextureRegion> frames = new Array<>();
         for (int i = 0; i < 6; i++)
-            frames.add(new TextureRegion(game.assets.manager.get(game.assets.flash), i * 32, 0, 32, 32));
+            frames.add(new TextureRegion(flashSheet, i * 32, 0, 32, 32));
         shoot = new Animation<>(0.01f, frames, Animation.PlayMode.LOOP);
         frames.clear();
         stateTimer = 0;
@@ -232,27 +189,24 @@ public class Player extends SpaceEntity {
         flashRight.setRegion(flashAnim);
         flashRight.setScale(flashLeft.getScaleX(), flashLeft.getScaleY());
 
-        muzzleLightLeft = new PointLight(screen.eManager.rayHandler, 128, color, 100 * PPM, body.getPosition().x, body.getPosition().y);
-        muzzleLightLeft.setStaticLight(false);
-        muzzleLightLeft.setSoft(true);
+        muzzleLightLeft = screen.eManager.lightManager.obtain(LightManager.PLAYER, color, 100 * PPM, transform.position.x, transform.position.y);
+        lights.add(muzzleLightLeft, -1.25f, 1);
 
-        muzzleLightRight = new PointLight(screen.eManager.rayHandler, 128, color, 100 * PPM, body.getPosition().x, body.getPosition().y);
-        muzzleLightRight.setStaticLight(false);
-        muzzleLightRight.setSoft(true);
+        muzzleLightRight = screen.eManager.lightManager.obtain(LightManager.PLAYER, color, 100 * PPM, transform.position.x, transform.position.y);
+        lights.add(muzzleLightRight, 1.25f, 1);
     }
 
     /** Helper method that ensures player body stays within screen. */
     private void stayInBounds() {
-        // Stay within X bounds
-        if (body.getPosition().x + sprite.getWidth() * sprite.getScaleX() / 2 > JuicyShmup.GAME_WIDTH * PPM)
-            body.setTransform(JuicyShmup.GAME_WIDTH * PPM - sprite.getWidth() * sprite.getScaleX() / 2, body.getPosition().y, body.getAngle());
-        else if (body.getPosition().x - sprite.getWidth() * sprite.getScaleX() / 2 < 0)
-            body.setTransform(sprite.getWidth() * sprite.getScaleX() / 2, body.getPosition().y, body.getAngle());
-
-        // Stay within Y bounds
-        if (body.getPosition().y + sprite.getHeight() * sprite.getScaleY() / 2 > JuicyShmup.GAME_HEIGHT * PPM)
-            body.setTransform(body.getPosition().x, JuicyShmup.GAME_HEIGHT * PPM - sprite.getHeight() * sprite.getScaleY() / 2, body.getAngle());
-        else if (body.getPosition().y - sprite.getHeight() * sprite.getScaleY() / 2 < 0)
-            body.setTransform(body.getPosition().x, sprite.getHeight() * sprite.getScaleY() / 2, body.getAngle());
+        float halfWidth = sprite.getWidth() * sprite.getScaleX() / 2;
+        float halfHeight = sprite.getHeight() * sprite.getScaleY() / 2;
+        float x = MathUtils.clamp(transform.position.x, halfWidth, JuicyShmup.GAME_WIDTH * PPM - halfWidth);
+        float y = MathUtils.clamp(transform.position.y, halfHeight, JuicyShmup.GAME_HEIGHT * PPM - halfHeight);
+
+        /* Only moves the body when it's out of bounds, so it still slides there between ticks */
+        if (x != transform.position.x || y != transform.position.y) {
+            body.setTransform(x, y, body.getAngle());
+            transform.position.set(x, y);
+        }
     }
 }
@@ -1,39 +1,62 @@
 package io.github.lionisaqt.actors;
 
-import com.badlogic.gdx.audio.Sound;
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Filter;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.Shape;
 import com.badlogic.gdx.physics.box2d.World;
 
-import box2dLight.PointLight;
 import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.components.BodyComponent;
+import io.github.lionisaqt.components.EmitterComponent;
+import io.github.lionisaqt.components.FactionComponent;
+import io.github.lionisaqt.components.HealthComponent;
+import io.github.lionisaqt.components.LightComponent;
+import io.github.lionisaqt.components.RenderComponent;
+import io.github.lionisaqt.components.TransformComponent;
+import io.github.lionisaqt.components.VelocityComponent;
 import io.github.lionisaqt.screens.InGame;
-import io.github.lionisaqt.utils.EntityInfo;
+import io.github.lionisaqt.utils.EffectPool;
+import io.github.lionisaqt.utils.LightManager;
+import io.github.lionisaqt.utils.SoundBus;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
 /**
- * Abstract class for generic space objects.
+ * Abstract class for generic space objects. Holds the entity's components; moving, lighting and drawing it
+ * are done by the screen's systems, so subclasses only add behavior.
  * @author Ryan Shee */
-abstract class SpaceEntity extends Sprite {
+abstract class SpaceEntity implements HealthComponent.Owner {
     /* Reference to the game for assets */
     JuicyShmup game;
     private World world;    // Need world to build body
     InGame screen;          // Reference for in-game stuff
-    public Body body;       // Physics body
+    public Body body;       // Physics body, kept while pooled
+    private Fixture fixture;  // The body's only fixture
     Sprite sprite;          // Rendered image
     float scale;            // Used to convert pixels to box2d meters
-    public EntityInfo info;        // Contains entity's information, passed into body's user data
-    PointLight light;       // Light emitted by this entity
+    float speed;            // How fast the entity moves
     Color color;            // Light color to help tell friend from foe
-    Sound deathSound;       // Generic death sound
+    SoundBus.Cue deathSound;  // Generic death sound
+
+    /* The entity and its components */
+    public final Entity entity;
+    public final TransformComponent transform;
+    final VelocityComponent velocity;
+    private final BodyComponent bodyComponent;
+    public final HealthComponent health;
+    public final FactionComponent faction;
+    private final RenderComponent render;
+    final LightComponent lights;
+    final EmitterComponent emitter;
 
     /** Constructs a space entity.
      * @param screen Reference for in-game stuff */
@@ -41,7 +64,34 @@ abstract class SpaceEntity extends Sprite {
         this.game = game;
         this.screen = screen;
         world = screen.world;
-        info = new EntityInfo();
+
+        entity = new Entity();
+        entity.add(transform = new TransformComponent());
+        entity.add(velocity = new VelocityComponent());
+        entity.add(bodyComponent = new BodyComponent());
+        entity.add(health = new HealthComponent());
+        entity.add(faction = new FactionComponent());
+        entity.add(render = new RenderComponent());
+        entity.add(lights = new LightComponent());
+        entity.add(emitter = new EmitterComponent());
+        health.owner = this;
+    }
+
+    /** Sets the rendered image.
+     * @param sprite The sprite drawn for this entity */
+    void setSprite(Sprite sprite) {
+        this.sprite = sprite;
+        render.sprite = sprite;
+    }
+
+    /** Starts a continuous particle effect that follows the entity until it's released. Over the particle budget,
+     * the entity may go without.
+     * @param pool Pool the effect comes from
+     * @param x Offset from the entity on the x axis
+     * @param y Offset from the entity on the y axis */
+    void startEmitter(EffectPool pool, float x, float y) {
+        PooledEffect p = screen.eManager.start(pool, transform.position.x + x, transform.position.y + y, scale);
+        emitter.set(p, x, y);
     }
 
     /**
@@ -54,14 +104,11 @@ abstract class SpaceEntity extends Sprite {
         bDef.position.set(x, y);
         bDef.type = BodyDef.BodyType.DynamicBody;
         body = world.createBody(bDef);
+        body.setUserData(entity);
+        bodyComponent.body = body;
 
         FixtureDef fDef = new FixtureDef();
-
-        /* What category an object is */
-        fDef.filter.categoryBits = info.friendly ? JuicyShmup.PLAYER_BIT : JuicyShmup.ENEMY_BIT | JuicyShmup.ITEM_BIT;
-
-        /* What categories they collide with */
-        fDef.filter.maskBits = info.friendly ? JuicyShmup.ENEMY_BIT | JuicyShmup.ITEM_BIT : JuicyShmup.PLAYER_BIT;
+        setFilter(fDef.filter);
 
         Shape shape;
 
@@ -70,40 +117,81 @@ abstract class SpaceEntity extends Sprite {
                 shape = new CircleShape();
                 shape.setRadius(sprite.getWidth() * sprite.getScaleX() * 2);
                 fDef.isSensor = true;
+                transform.halfWidth = transform.halfHeight = shape.getRadius();
                 break;
             case "square":
             default:
                 shape = new PolygonShape();
-                ((PolygonShape)shape).setAsBox(sprite.getWidth() * scale / 2, sprite.getHeight() * scale / 2);
+                transform.halfWidth = sprite.getWidth() * scale / 2;
+                transform.halfHeight = sprite.getHeight() * scale / 2;
+                ((PolygonShape)shape).setAsBox(transform.halfWidth, transform.halfHeight);
                 break;
         }
 
         fDef.shape = shape;
-        body.createFixture(fDef);
+        fixture = body.createFixture(fDef);
         shape.dispose();
+
+        transform.set(x, y);
+    }
+
+    /** Puts the body of a pooled entity back into the world, instead of making a new one.
+     * @param x The new x position of the body
+     * @param y The new y position of the body */
+    void reuseBody(float x, float y) {
+        /* Only refilter if the entity changed sides since it was last used */
+        Filter filter = fixture.getFilterData();
+        if (filter.maskBits != maskBits()) {
+            setFilter(filter);
+            fixture.setFilterData(filter);
+        }
+
+        body.setActive(true);
+        setPosition(x, y);
+    }
+
+    /** Destroys the body for good, for when the entity won't be used again. */
+    public void destroyBody() {
+        world.destroyBody(body);
+        body = null;
+        bodyComponent.body = null;
+        fixture = null;
+    }
+
+    /** Sets which categories the body is in and collides with, based on whether the entity is friendly.
+     * @param filter The filter to set */
+    private void setFilter(Filter filter) {
+        /* What category an object is */
+        filter.categoryBits = faction.friendly ? JuicyShmup.PLAYER_BIT : JuicyShmup.ENEMY_BIT | JuicyShmup.ITEM_BIT;
+
+        /* What categories they collide with */
+        filter.maskBits = maskBits();
+    }
+
+    /** @return What categories the body collides with */
+    private short maskBits() { return faction.friendly ? JuicyShmup.ENEMY_BIT | JuicyShmup.ITEM_BIT : JuicyShmup.PLAYER_BIT; }
+
+    /** Moves the entity and its body somewhere, without it sliding there between ticks.
+     * @param x The new x position
+     * @param y The new y position */
+    public void setPosition(float x, float y) {
+        body.setTransform(x, y, body.getAngle());
+        transform.set(x, y);
     }
 
     /**
-     * Called every frame. Handles any logic with the entity.
-     * @param deltaTime Time since last frame was called */
+     * Called every tick. Handles any logic with the entity.
+     * @param deltaTime Time since the last tick */
     public abstract void update(float deltaTime);
 
-    /** Some things may do things other things when they die. */
+    /** Some things may do things other things when they die. Called once, when the entity's hp runs out. */
+    @Override
     public void die() {
         /* Explosion light effect */
-        PointLight p = screen.eManager.lightPool.obtain();
-        p.setColor(color);
-        p.setDistance(1500 * info.impact * PPM);
-        p.setPosition(body.getPosition());
-        screen.eManager.lightEffects.add(p);
+        screen.eManager.flash(LightManager.EXPLOSION, color, 1500 * faction.impact * PPM, transform.position.x, transform.position.y);
 
-        body.setActive(false);
-        if (!body.isActive()) screen.world.destroyBody(body);
+        body.setActive(false);  // Kept for reuse, but out of the world until then
 
-        screen.tManager.addTrauma(info.impact);
+        screen.tManager.addTrauma(faction.impact);
     }
-
-    /** Draws the entity.
-     * @param batch The SpriteBatch for batch drawing. */
-    public void draw(SpriteBatch batch) { sprite.draw(batch); }
 }
@@ -0,0 +1,9 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/** The Box2D body that moves an entity. Its user data is the entity. */
+public class BodyComponent implements Component {
+    public Body body;
+}
@@ -0,0 +1,28 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+
+/** A continuous particle effect carried by an entity, like an engine trail, held at an offset from where the
+ * entity is drawn. */
+public class EmitterComponent implements Component {
+    public PooledEffect effect;     // Null when the entity isn't emitting anything
+    public float offsetX, offsetY;
+
+    /** Starts carrying a continuous effect. It must already be running in the effects manager.
+     * @param effect The effect, or null if the effects manager didn't start one
+     * @param x Offset from the entity on the x axis
+     * @param y Offset from the entity on the y axis */
+    public void set(PooledEffect effect, float x, float y) {
+        this.effect = effect;
+        offsetX = x;
+        offsetY = y;
+    }
+
+    /** Lets the effect finish the particles it has out, then it's freed by the effects manager. */
+    public void release() {
+        if (effect == null) return;
+        effect.allowCompletion();
+        effect = null;
+    }
+}
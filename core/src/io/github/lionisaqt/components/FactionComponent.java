@@ -0,0 +1,10 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+
+/** Which side an entity is on, and what touching it does to the other side. */
+public class FactionComponent implements Component {
+    public boolean friendly, isPlayer;
+    public int dmg;         // Damage dealt to whatever of the other side it touches
+    public float impact;    // How much screen shake this entity produces
+}
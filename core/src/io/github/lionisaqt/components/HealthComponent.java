@@ -0,0 +1,15 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+
+/** How much damage an entity can take before it dies. */
+public class HealthComponent implements Component {
+    /** Whatever the entity belongs to, told when it dies. */
+    public interface Owner {
+        /** Called once when the entity's hp runs out. */
+        void die();
+    }
+
+    public int hp, maxHp;
+    public Owner owner;     // Told when hp runs out, see B2dContactListener
+}
@@ -0,0 +1,32 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import io.github.lionisaqt.utils.GameLight;
+import io.github.lionisaqt.utils.LightManager;
+
+/** Lights carried by an entity, each held at an offset from where the entity is drawn. */
+public class LightComponent implements Component {
+    public final Array<GameLight> lights = new Array<>();
+    public final FloatArray offsets = new FloatArray();    // x and y offset of each light, in pairs
+
+    /** Carries a light with the entity.
+     * @param light The light
+     * @param x Offset from the entity on the x axis
+     * @param y Offset from the entity on the y axis */
+    public void add(GameLight light, float x, float y) {
+        lights.add(light);
+        offsets.add(x);
+        offsets.add(y);
+    }
+
+    /** Frees every light back to its pool and stops carrying them.
+     * @param manager The manager the lights came from */
+    public void freeAll(LightManager manager) {
+        for (int i = 0; i < lights.size; i++) manager.free(lights.get(i));
+        lights.clear();
+        offsets.clear();
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+/** What an entity looks like. The sprite is drawn centered on the transform's render position. */
+public class RenderComponent implements Component {
+    public Sprite sprite;
+}
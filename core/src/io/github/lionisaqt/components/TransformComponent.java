@@ -0,0 +1,21 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+
+/** Where an entity is, where it was a tick ago, and where it's drawn between the two. */
+public class TransformComponent implements Component {
+    public final Vector2 position = new Vector2();  // Body position after the last world step
+    public final Vector2 previous = new Vector2();  // Body position before the last world step
+    public final Vector2 render = new Vector2();    // Position drawn this frame
+    public float halfWidth, halfHeight;             // Half the size of the body, for hit tests
+
+    /** Puts the entity somewhere without it sliding there between ticks.
+     * @param x The new x position
+     * @param y The new y position */
+    public void set(float x, float y) {
+        position.set(x, y);
+        previous.set(x, y);
+        render.set(x, y);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.lionisaqt.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+
+/** How fast an entity wants to move. Read back from the body after every world step, and given to the body
+ * before the next one. */
+public class VelocityComponent implements Component {
+    public final Vector2 linear = new Vector2();
+}
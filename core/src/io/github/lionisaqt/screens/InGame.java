@@ -1,7 +1,9 @@
 package io.github.lionisaqt.screens;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.Vector2;
@@ -13,23 +15,48 @@ import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.Timer;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.github.lionisaqt.JuicyShmup;
-import io.github.lionisaqt.actors.Bullet;
+import io.github.lionisaqt.actors.BulletEngine;
 import io.github.lionisaqt.actors.EnemyDirector;
 import io.github.lionisaqt.actors.Player;
+import io.github.lionisaqt.systems.EmitterSystem;
+import io.github.lionisaqt.systems.InterpolationSystem;
+import io.github.lionisaqt.systems.LightSystem;
+import io.github.lionisaqt.systems.PhysicsSystem;
+import io.github.lionisaqt.systems.RenderSystem;
 import io.github.lionisaqt.utils.B2dContactListener;
+import io.github.lionisaqt.utils.Command;
 import io.github.lionisaqt.utils.BackgroundColor;
 import io.github.lionisaqt.utils.EffectsManager;
+import io.github.lionisaqt.utils.FrameProbe;
+import io.github.lionisaqt.utils.FrameProfiler;
+import io.github.lionisaqt.utils.InputHandoff;
+import io.github.lionisaqt.utils.InputSource;
+import io.github.lionisaqt.utils.LiveInput;
+import io.github.lionisaqt.utils.PoolStats;
+import io.github.lionisaqt.utils.RenderQueue;
+import io.github.lionisaqt.utils.ReplayReader;
+import io.github.lionisaqt.utils.ReplayRecorder;
+import io.github.lionisaqt.utils.SimulationThread;
+import io.github.lionisaqt.utils.Snapshot;
+import io.github.lionisaqt.utils.SoundBus;
 import io.github.lionisaqt.utils.TraumaManager;
+import io.github.lionisaqt.utils.TripleBuffer;
+import io.github.lionisaqt.utils.Workers;
 
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.*;
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
-/** The game screen.
+/** The game screen. The simulation normally runs every frame before drawing; with {@link JuicyShmup#threaded} it runs
+ * on its own thread instead, and every step hands a {@link Snapshot} of what to draw to this thread, which then
+ * never touches the simulation itself.
  * @author Ryan Shee */
 public class InGame extends MyScreen {
     private enum State { PAUSE, PLAY, RESUME }
@@ -39,52 +66,128 @@ public class InGame extends MyScreen {
     private BackgroundColor backgroundColor;
     private Label scoreLabel, pauseLabel;
     private TextButton pauseButton, menuButton, resumeButton, exitButton;
-    private int score = 0;
+    private final AtomicInteger score = new AtomicInteger();    // Can go up on either thread
+    private int shownScore;                                     // Score the label shows
+    private final StringBuilder scoreText = new StringBuilder(); // Reused so scoring doesn't build a new string
 
     public final EffectsManager eManager;
+    public final SoundBus sounds;           // Plays every gameplay sound, a few voices at a time
 
     public final World world;               // Box2D world
-    private final Box2DDebugRenderer b2dr;  // Lets us see Box2D bodies
+    public final B2dContactListener collisions; // Contacts, damage and deaths, handled after each step
+    public final Array<Entity> entities = new Array<>();    // Every entity but bullets, in the order they were added
+
+    /* Systems that move, light and draw entities */
+    private final PhysicsSystem physics;
+    private final InterpolationSystem interpolation;
+    private final LightSystem lights;
+    private final EmitterSystem emitters;
+    private final RenderSystem renderer;
+    private Box2DDebugRenderer b2dr;        // Lets us see Box2D bodies, never made when headless
 
     public final TraumaManager tManager;    // Screen shake utility
+    private final OrthographicCamera shaken;    // Camera the screen shake moves, this screen's unless threaded
+
+    public final InputSource input;         // Where gameplay input comes from, sampled once per tick
+    private final InputHandoff handoff;     // Live input sampled each frame and handed to the simulation
+    public final Command command = new Command();   // This tick's input
 
-    public Array<Bullet> bullets;           // Array of active bullets
-    public Pool<Bullet> bulletPool;         // Pool of bullets
+    public final BulletEngine bullets;      // Every live bullet
 
     public final EnemyDirector director;   // Controls enemy spawn
 
+    public final Workers workers;           // Threads big loops are split over, like steering every enemy
+
     public float timeMultiplier;            // Scales game speed
+    private final AtomicInteger speedRequest = new AtomicInteger(); // Speed asked for while drawing, as float bits
+    private final AtomicInteger volumeRequest = new AtomicInteger(); // Song volume asked for by the simulation, as float bits
+
+    private float tickTime;                 // Simulated time per tick
+    public int maxSubsteps;                 // Most ticks per frame, so a slow frame can't snowball into slower ones
+    private float accumulator;              // Simulated time that hasn't been ticked yet
 
     private Player player;
 
-    InGame(final JuicyShmup game) {
+    private FrameProfiler profiler;         // Frame timing overlay, made the first time it's shown
+    private final RenderQueue queue = new RenderQueue();    // Sprites sorted before drawing, when not threaded
+    private RenderQueue drawn;              // Queue drawn last frame, whichever it was
+
+    /* Only when the simulation has its own thread */
+    private final SimulationThread simulation;
+    private final TripleBuffer<Snapshot> snapshots;
+    private Snapshot shown;                 // What's drawn this frame
+
+    public InGame(final JuicyShmup game) {
         super(game);
+        game.finishLoading();   // Gameplay assets may still be streaming in behind the menu
         state = State.PLAY;
 
+        /* Every run gets its own seed, so a replay of it plays out the same way */
+        long seed;
+        if (game.replay != null) {
+            ReplayReader replay = new ReplayReader(game.replay);
+            seed = replay.seed;
+            input = replay;
+            handoff = null;
+        } else {
+            seed = game.random.gameplay.nextLong();
+            handoff = new InputHandoff(new LiveInput());
+            input = game.record != null ? new ReplayRecorder(handoff, game.record, seed) : handoff;
+        }
+        game.random.setSeed(seed);
+
         timeMultiplier = 1;
+        setTickRate(60);
+        maxSubsteps = 5;
 
-        tManager = new TraumaManager(camera);
+        shaken = game.threaded ? new OrthographicCamera(JuicyShmup.GAME_WIDTH * PPM, JuicyShmup.GAME_HEIGHT * PPM) : camera;
+        tManager = new TraumaManager(shaken, game.random.cosmetic);
 
         world = new World(new Vector2(0, 0), true);
-        world.setContactListener(new B2dContactListener(tManager));
-        b2dr = new Box2DDebugRenderer();
+        world.setContactListener(collisions = new B2dContactListener(tManager));
+        if (!game.headless) b2dr = new Box2DDebugRenderer();
 
         eManager = new EffectsManager();
-        eManager.loadParticles();
+        eManager.loadParticles(game.assets.manager.get(game.assets.atlas));
         eManager.loadLightEffects(world);
+        eManager.loadStarfield(game.assets.region(game.assets.bullet), game.random.cosmetic);
+
+        sounds = new SoundBus(SoundBus.budget(Gdx.app.getType()));
+        sounds.loadSounds(game.assets);
+
+        physics = new PhysicsSystem(world, entities);
+        interpolation = new InterpolationSystem(entities);
+        lights = new LightSystem(entities);
+        emitters = new EmitterSystem(entities);
+        renderer = new RenderSystem(entities);
 
         player = new Player(game, this, JuicyShmup.GAME_WIDTH / 2 * PPM, 100 * PPM);
 
-        final InGame iG = this;
-        bullets = new Array<>();
-        bulletPool = new Pool<Bullet>(1, 200) {
-            @Override
-            protected Bullet newObject() {
-                return new Bullet(game, iG);
-            }
-        };
+        bullets = new BulletEngine(game, this, 2048);
 
+        workers = new Workers(Workers.available(), 256);
         director = new EnemyDirector(game, this);
+
+        if (game.threaded) {
+            /* Lights are cast here while the world steps on the other thread, so they can't raycast it */
+            eManager.lightManager.rayHandler.setWorld(null);
+            sounds.handOff();
+
+            int maxLights = eManager.lightManager.maxLights;
+            snapshots = new TripleBuffer<>(new Snapshot(maxLights), new Snapshot(maxLights), new Snapshot(maxLights));
+            shown = snapshots.acquire();
+            simulation = new SimulationThread(new SimulationThread.Step() {
+                @Override
+                public void step(float deltaTime) {
+                    simulate(deltaTime);
+                    present(snapshots.back());
+                    snapshots.publish();
+                }
+            }, tickTime);
+        } else {
+            snapshots = null;
+            simulation = null;
+        }
     }
 
     void update(float deltaTime) {
@@ -92,35 +195,139 @@ public class InGame extends MyScreen {
         switch (state) {
             case PAUSE:
                 pauseTable.setVisible(true);
+                if (simulation != null) simulation.setPaused(true);
                 break;
             case RESUME:
                 pauseTable.setVisible(false);
-                timeMultiplier = 6f;
+                requestGameSpeed(6f);
                 state = State.PLAY;
                 break;
             case PLAY:
-	            if (game.currentSong.getVolume() < 1) {
+	            if (!game.headless && game.currentSong.getVolume() < 1) {
 		            float vol = game.currentSong.getVolume();
 		            vol *= 1.01;
 		            game.currentSong.setVolume(vol);
-		            Gdx.app.log("Volume", game.currentSong.getVolume() + "");
 	            }
 
-                if (timeMultiplier != 1) normalizeGameSpeed(deltaTime);
+                if (handoff != null) handoff.post();
+                if (simulation == null) simulate(deltaTime);
+                else receive();
 
-                world.step(1 / (60f * timeMultiplier), 6, 2);
+                int volume = volumeRequest.getAndSet(0);
+                if (volume != 0 && !game.headless) game.currentSong.setVolume(Float.intBitsToFloat(volume));
 
-                player.update(deltaTime);
-                for (Bullet b : bullets) b.update(deltaTime);
-                director.update(deltaTime, player.info.hp, player.body.getPosition());
-                eManager.update(deltaTime, timeMultiplier, camera, viewport);
-                tManager.manageShake(deltaTime, timeMultiplier);
+                begin(FrameProbe.SOUNDS);
+                sounds.update(deltaTime);
+                end(FrameProbe.SOUNDS);
                 break;
             default:
                 break;
         }
+        refreshScore();
+    }
+
+    /** Runs the simulation for a frame's worth of time: every tick that's due, then effects and screen shake. Runs on
+     * the simulation thread when there is one.
+     * @param deltaTime Time since the last call */
+    private void simulate(float deltaTime) {
+        int speed = speedRequest.getAndSet(0);
+        if (speed != 0) timeMultiplier = Float.intBitsToFloat(speed);
+        if (timeMultiplier != 1) normalizeGameSpeed(deltaTime);
+
+        /* Slow-mo lets less time pile up, so the simulation ticks less often */
+        accumulator += deltaTime / timeMultiplier;
+        for (int i = 0; i < maxSubsteps && accumulator >= tickTime; i++) {
+            tick(tickTime);
+            accumulator -= tickTime;
+        }
+        if (accumulator >= tickTime) accumulator %= tickTime; // Too far behind, drop what's left
+
+        interpolate(accumulator / tickTime);
+        begin(FrameProbe.EFFECTS);
+        eManager.update(deltaTime, timeMultiplier);
+        end(FrameProbe.EFFECTS);
+
+        begin(FrameProbe.TRAUMA);
+        tManager.manageShake(deltaTime, timeMultiplier);
+        end(FrameProbe.TRAUMA);
+    }
+
+    /** Writes down everything needed to draw the game as it is now, on the simulation thread.
+     * @param snapshot Snapshot to fill in, not being read by anything */
+    private void present(Snapshot snapshot) {
+        queueWorld(snapshot.sprites);
+
+        eManager.lightManager.rank(player.transform.render, snapshot.lights);
+        snapshot.cameraX = shaken.position.x;
+        snapshot.cameraY = shaken.position.y;
+        snapshot.upX = shaken.up.x;
+        snapshot.upY = shaken.up.y;
+        snapshot.written = true;
+    }
+
+    /** Lets the simulation thread run and takes the newest snapshot it wrote. */
+    private void receive() {
+        simulation.check();
+        simulation.setPaused(false);
+
+        shown = snapshots.acquire();
+        if (shown.written) {
+            camera.position.set(shown.cameraX, shown.cameraY, 0);
+            camera.up.set(shown.upX, shown.upY, 0);
+        }
+    }
+
+    /** Advances the simulation by one fixed step.
+     * @param tickTime Simulated time per tick */
+    private void tick(float tickTime) {
+        input.sample(command);
+
+        begin(FrameProbe.BULLETS);
+        bullets.savePositions();
+        end(FrameProbe.BULLETS);
+
+        begin(FrameProbe.PHYSICS);
+        physics.update(tickTime);
+        end(FrameProbe.PHYSICS);
+
+        begin(FrameProbe.CONTACTS);
+        collisions.dispatch();
+        end(FrameProbe.CONTACTS);
+
+        begin(FrameProbe.DIRECTOR);
+        director.buildGrid();
+        end(FrameProbe.DIRECTOR);
+
+        begin(FrameProbe.PLAYER);
+        player.update(tickTime);
+        end(FrameProbe.PLAYER);
+
+        begin(FrameProbe.BULLETS);
+        bullets.update(tickTime, player, director);
+        end(FrameProbe.BULLETS);
+
+        begin(FrameProbe.CONTACTS);
+        collisions.dispatch();  // Whatever the player and bullets killed
+        end(FrameProbe.CONTACTS);
+
+        begin(FrameProbe.DIRECTOR);
+        director.update(tickTime, player.health.hp, player.transform.position);
+        end(FrameProbe.DIRECTOR);
     }
 
+    /** Moves everything drawn to where it would be between the last two ticks.
+     * @param alpha How far the frame is between the last tick and the next, from 0 to 1 */
+    private void interpolate(float alpha) {
+        interpolation.interpolate(alpha);
+        lights.follow();
+        emitters.follow();
+        bullets.interpolate(alpha);
+    }
+
+    /** Sets how many times per second the simulation ticks, regardless of frame rate.
+     * @param ticksPerSecond Simulation ticks per second of game time */
+    public void setTickRate(float ticksPerSecond) { tickTime = 1 / ticksPerSecond; }
+
     @Override
     void handleInput() {
         switch (Gdx.app.getType()) {
@@ -135,6 +342,7 @@ public class InGame extends MyScreen {
                     if (pauseButton.isTouchable()) pause();
                     else resumeGame();
                 }
+                if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) toggleProfiler();
                 if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) Gdx.app.exit();
             default:
                 break;
@@ -143,29 +351,90 @@ public class InGame extends MyScreen {
 
     @Override
     void draw(SpriteBatch batch) {
-        eManager.renderLight();
+        begin(FrameProbe.LIGHTS);
+        if (simulation == null) eManager.castLight(player.transform.render);
+        else eManager.castLight(shown.lights);
+        end(FrameProbe.LIGHTS);
+
+        begin(FrameProbe.LIGHTMAP);
+        eManager.renderLight(camera, viewport);
+        end(FrameProbe.LIGHTMAP);
+
+        begin(FrameProbe.SPRITES);
+        if (simulation == null) queueWorld(queue);
+        drawn = simulation == null ? queue : shown.sprites;
         batch.begin();
-        player.draw(batch);
-        for (Bullet b : bullets) b.draw(batch);
-        director.draw(batch);
-        eManager.draw(batch);
+        drawn.draw(batch);
         batch.end();
+        if (profiler != null && probe == profiler) profiler.sorted(drawn.drawCalls);
+        end(FrameProbe.SPRITES);
 
-        if (game.debug) b2dr.render(world, camera.combined);
+        /* The world is only safe to look at from the thread stepping it */
+        if (game.debug && simulation == null) b2dr.render(world, camera.combined);
     }
 
-    /** Decreases game speed (basically slow-mo). */
-    private void decreaseGameSpeed() {
-        timeMultiplier += 0.5f;
-        if (timeMultiplier > 5) timeMultiplier = 5f;
+    /** Queues the background, every entity, flash, bullet and particle, each in its own layer, and sorts them.
+     * @param queue The queue to fill, emptied first */
+    public void queueWorld(RenderQueue queue) {
+        queue.begin();
+        queue.setLayer(RenderQueue.BACKGROUND);
+        eManager.drawBackground(queue);
+        queue.setLayer(RenderQueue.ENTITIES);
+        renderer.draw(queue);
+        queue.setLayer(RenderQueue.FLASHES);
+        player.drawFlashes(queue);
+        queue.setLayer(RenderQueue.BULLETS);
+        bullets.draw(queue);
+        queue.setLayer(RenderQueue.EFFECTS);
+        eManager.draw(queue);
+        queue.end();
     }
 
-    /** Increases game speed (basically fast-mo). */
-    private void increaseGameSpeed() {
-        timeMultiplier -= 0.5f;
-        if (timeMultiplier < 0.5f) timeMultiplier = 0.5f;
+    /** @return Texture and blend changes in the sprites drawn last frame, so the least draw calls they could take.
+     * Headless, nothing is drawn, so it's the sprites that would be drawn as the game is now */
+    public int getDrawCalls() {
+        if (drawn != null) return drawn.drawCalls;
+        if (simulation != null) return shown.sprites.drawCalls;
+        queueWorld(queue);
+        return queue.drawCalls;
+    }
+
+    /* Ticks on the simulation thread aren't part of any frame, so only this thread's phases are probed */
+    @Override
+    void begin(int phase) { if (simulation == null || !simulation.isCurrent()) super.begin(phase); }
+
+    @Override
+    void end(int phase) { if (simulation == null || !simulation.isCurrent()) super.end(phase); }
+
+    /** Shows or hides the frame profiler. Frames are only timed while it's shown, so it's free the rest of the time. */
+    private void toggleProfiler() {
+        if (profiler == null) {
+            profiler = new FrameProfiler(game.batch, game.skin);
+            profiler.label.setPosition(8, JuicyShmup.GAME_HEIGHT - 80, Align.topLeft);
+            hud.stage.addActor(profiler.label);
+        }
+
+        boolean show = probe != profiler;
+        probe = show ? profiler : null;
+        profiler.setVisible(show);
     }
 
+    /** Decreases game speed (basically slow-mo). */
+    private void decreaseGameSpeed() { requestGameSpeed(Math.min(5, timeMultiplier + 0.5f)); }
+
+    /** Increases game speed (basically fast-mo). */
+    private void increaseGameSpeed() { requestGameSpeed(Math.max(0.5f, timeMultiplier - 0.5f)); }
+
+    /** Asks for a game speed from this thread. The simulation takes it up the next time it runs, on whichever thread
+     * it's on.
+     * @param speed The target game speed */
+    private void requestGameSpeed(float speed) { speedRequest.set(Float.floatToIntBits(speed)); }
+
+    /** Asks for a song volume from the simulation. The song is only touched by the drawing thread, which takes it up
+     * at the end of the frame.
+     * @param volume The song volume, above 0 */
+    public void requestSongVolume(float volume) { volumeRequest.set(Float.floatToIntBits(volume)); }
+
     /** Sets game speed to exact value. Max slow-mo of 5x and max fast-mo of 2x.
      * @param speed The target game speed. */
     public void setGameSpeed(float speed) {
@@ -187,35 +456,60 @@ public class InGame extends MyScreen {
         if (Math.abs(timeMultiplier - 1) < 0.1f) timeMultiplier = 1;
     }
 
-    /** Adds score to current score, changes text. */
-    public void addScore(int score) {
-        this.score += score;
-        scoreLabel.setText("" + this.score);
+    /** Adds score to current score. The label catches up on the next frame. */
+    public void addScore(int score) { this.score.addAndGet(score); }
+
+    /** Changes the score's text if the score changed. Only ever done on this thread, since the score can go up on
+     * the simulation's. */
+    private void refreshScore() {
+        int current = score.get();
+        if (scoreLabel == null || current == shownScore) return;
+
+        shownScore = current;
+        scoreText.setLength(0);
+        scoreText.append(current);
+        scoreLabel.setText(scoreText);
     }
 
     /** Returns current score.
      * @return score Player's current score. */
-    public int getScore() { return score; }
+    public int getScore() { return score.get(); }
+
+    /** Returns the player.
+     * @return player The player's ship. */
+    public Player getPlayer() { return player; }
+
+    /** Gathers how every pool on this screen has been used, for sizing the pools from real play.
+     * @param stats Where to add them */
+    public void getPoolStats(Array<PoolStats> stats) {
+        stats.add(director.enemyPool.stats);
+        stats.add(director.dogfighterPool.stats);
+        for (int i = 0; i < eManager.pools.size; i++) stats.add(eManager.pools.get(i).stats);
+        stats.add(eManager.lightManager.getPoolStats());
+    }
 
     @Override
     public void dispose() {
+        if (simulation != null) simulation.stop();  // Before anything it's using goes
         super.dispose();
-        backgroundColor.dispose();
-
-        world.dispose();
-        b2dr.dispose();
+        if (backgroundColor != null) backgroundColor.dispose();
 
-        for (int i = bullets.size - 1; i >=0; i--)
-            bullets.get(i).free();
+        /* Free entities first, they still touch their bodies */
         bullets.clear();
-
         director.dispose();
+        entities.clear();
         eManager.dispose();
+        sounds.stopAll();
+        workers.dispose();
+        input.dispose();
+
+        world.dispose();
+        if (b2dr != null) b2dr.dispose();
     }
 
     @Override
     void addUI() {
-        scoreLabel = new Label("" + score, game.skin);
+        scoreLabel = new Label("0", game.skin);
         scoreLabel.setFontScale(2f);
 
         pauseTable = new Table();
@@ -303,6 +597,8 @@ public class InGame extends MyScreen {
     @Override
     public void show() {
         super.show();
+        if (game.headless) return;
+
         scoreLabel.addAction(sequence(alpha(0),
                 parallel(fadeIn(1f), moveBy(0, -10, 1f, Interpolation.pow5))));
         pauseButton.addAction(sequence(alpha(0),
@@ -331,6 +627,9 @@ public class InGame extends MyScreen {
     @Override
     public void pause() {
         super.pause();
+        if (simulation != null) simulation.setPaused(true);
+        if (game.headless) return;
+
         pauseButton.setTouchable(Touchable.disabled);
         pauseAnimation();
         state = State.PAUSE;
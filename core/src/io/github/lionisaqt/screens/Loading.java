@@ -0,0 +1,47 @@
+package io.github.lionisaqt.screens;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+import io.github.lionisaqt.JuicyShmup;
+
+import static io.github.lionisaqt.JuicyShmup.PPM;
+
+/** Shown while the menu's assets load. There's no skin yet, so progress is a plain bar. The game does the loading
+ * and moves on to the main menu once the skin is in.
+ * @see JuicyShmup#render() */
+public class Loading extends MyScreen {
+    private final ShapeRenderer shapes = new ShapeRenderer();
+
+    public Loading(final JuicyShmup game) {
+        super(game);
+    }
+
+    @Override
+    void addUI() { /* Nothing to show it with yet */ }
+
+    @Override
+    void handleInput() { }
+
+    @Override
+    void draw(SpriteBatch batch) {
+        float width = JuicyShmup.GAME_WIDTH * PPM * 0.6f;
+        float height = 0.5f;
+        float x = (JuicyShmup.GAME_WIDTH * PPM - width) / 2;
+        float y = JuicyShmup.GAME_HEIGHT * PPM / 2;
+
+        shapes.setProjectionMatrix(camera.combined);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0.2f, 0.2f, 0.2f, 1);
+        shapes.rect(x, y, width, height);
+        shapes.setColor(0, 1, 0, 1);
+        shapes.rect(x, y, width * game.assets.manager.getProgress(), height);
+        shapes.end();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        shapes.dispose();
+    }
+}
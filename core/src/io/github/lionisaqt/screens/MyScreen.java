@@ -9,6 +9,7 @@ import com.badlogic.gdx.utils.viewport.StretchViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
 import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.utils.FrameProbe;
 import io.github.lionisaqt.utils.HUD;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
@@ -19,7 +20,7 @@ public abstract class MyScreen implements Screen {
     /* Reference to the game for assets */
     JuicyShmup game;
 
-    /* Every screen has a HUD */
+    /* Every screen has a HUD, except when running headless */
     HUD hud;
 
     /* Every screen has a camera */
@@ -28,6 +29,8 @@ public abstract class MyScreen implements Screen {
     /* Camera size */
     Viewport viewport;
 
+    public FrameProbe probe;    // Told when each phase of the frame runs, if set
+
     MyScreen(final JuicyShmup game) {
         this.game = game;
 
@@ -38,6 +41,8 @@ public abstract class MyScreen implements Screen {
         camera.translate(Gdx.graphics.getWidth() / 2, Gdx.graphics.getHeight() / 2);
         camera.update();
 
+        if (game.headless) return;
+
         hud = new HUD(game.batch);
         hud.table.setFillParent(true);
         hud.stage.setDebugAll(game.debug);
@@ -50,12 +55,20 @@ public abstract class MyScreen implements Screen {
 
     @Override
     public void show() {
-        Gdx.input.setInputProcessor(hud.stage);
-
+        if (hud != null) Gdx.input.setInputProcessor(hud.stage);
     }
 
     @Override
     public void render(float delta) {
+        begin(FrameProbe.FRAME);
+
+        /* Headless screens only simulate */
+        if (game.headless) {
+            update(delta);
+            end(FrameProbe.FRAME);
+            return;
+        }
+
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.05f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
@@ -63,11 +76,22 @@ public abstract class MyScreen implements Screen {
         game.batch.setProjectionMatrix(camera.combined);
 
         update(delta);
-        hud.stage.act();
         draw(game.batch);
+
+        begin(FrameProbe.UI);
+        hud.stage.act();
         hud.stage.draw();
+        end(FrameProbe.UI);
+
+        end(FrameProbe.FRAME);
     }
 
+    /** Tells the probe a phase is starting, if there is one. */
+    void begin(int phase) { if (probe != null) probe.begin(phase); }
+
+    /** Tells the probe a phase has ended, if there is one. */
+    void end(int phase) { if (probe != null) probe.end(phase); }
+
     /** Called every frame. Handles any logic during the state.
      * @param deltaTime Time since last frame was called */
     void update(float deltaTime) { handleInput(); }
@@ -94,5 +118,5 @@ public abstract class MyScreen implements Screen {
     public void hide() { }
 
     @Override
-    public void dispose() { hud.dispose(); }
+    public void dispose() { if (hud != null) hud.dispose(); }
 }
@@ -0,0 +1,31 @@
+package io.github.lionisaqt.systems;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.components.EmitterComponent;
+import io.github.lionisaqt.components.TransformComponent;
+
+/** Keeps every entity's continuous particle effect where the entity is drawn. */
+public class EmitterSystem {
+    private static final ComponentMapper<TransformComponent> transforms = ComponentMapper.getFor(TransformComponent.class);
+    private static final ComponentMapper<EmitterComponent> emitters = ComponentMapper.getFor(EmitterComponent.class);
+
+    private final Array<Entity> entities;
+
+    /** @param entities Every entity, see {@link io.github.lionisaqt.screens.InGame#entities} */
+    public EmitterSystem(Array<Entity> entities) { this.entities = entities; }
+
+    /** Called every frame, after interpolation and before effects are updated. */
+    public void follow() {
+        for (int i = 0; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            EmitterComponent emitter = emitters.get(e);
+            if (emitter.effect == null) continue;
+
+            TransformComponent t = transforms.get(e);
+            emitter.effect.setPosition(t.render.x + emitter.offsetX, t.render.y + emitter.offsetY);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.lionisaqt.systems;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.components.TransformComponent;
+
+/** Works out where every entity is drawn between the last two ticks. */
+public class InterpolationSystem {
+    private static final ComponentMapper<TransformComponent> transforms = ComponentMapper.getFor(TransformComponent.class);
+
+    private final Array<Entity> entities;
+
+    /** @param entities Every entity, see {@link io.github.lionisaqt.screens.InGame#entities} */
+    public InterpolationSystem(Array<Entity> entities) { this.entities = entities; }
+
+    /** Called every frame.
+     * @param alpha How far the frame is between the last tick and the next, from 0 to 1 */
+    public void interpolate(float alpha) {
+        for (int i = 0; i < entities.size; i++) {
+            TransformComponent t = transforms.get(entities.get(i));
+            t.render.set(t.previous).lerp(t.position, alpha);
+        }
+    }
+}
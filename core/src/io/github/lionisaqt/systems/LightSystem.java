@@ -0,0 +1,31 @@
+package io.github.lionisaqt.systems;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.components.LightComponent;
+import io.github.lionisaqt.components.TransformComponent;
+
+/** Keeps every entity's lights where the entity is drawn. */
+public class LightSystem {
+    private static final ComponentMapper<TransformComponent> transforms = ComponentMapper.getFor(TransformComponent.class);
+    private static final ComponentMapper<LightComponent> lights = ComponentMapper.getFor(LightComponent.class);
+
+    private final Array<Entity> entities;
+
+    /** @param entities Every entity, see {@link io.github.lionisaqt.screens.InGame#entities} */
+    public LightSystem(Array<Entity> entities) { this.entities = entities; }
+
+    /** Called every frame, after interpolation. */
+    public void follow() {
+        for (int i = 0; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            TransformComponent t = transforms.get(e);
+            LightComponent l = lights.get(e);
+
+            for (int j = 0; j < l.lights.size; j++)
+                l.lights.get(j).setPosition(t.render.x + l.offsets.get(j * 2), t.render.y + l.offsets.get(j * 2 + 1));
+        }
+    }
+}
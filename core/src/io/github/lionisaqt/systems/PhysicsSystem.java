@@ -0,0 +1,49 @@
+package io.github.lionisaqt.systems;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.components.BodyComponent;
+import io.github.lionisaqt.components.TransformComponent;
+import io.github.lionisaqt.components.VelocityComponent;
+
+/** Steps the Box2D world. Every body is given its entity's velocity beforehand, and its position and velocity
+ * are copied back afterwards, so nothing else has to ask the bodies between steps. */
+public class PhysicsSystem {
+    private static final ComponentMapper<BodyComponent> bodies = ComponentMapper.getFor(BodyComponent.class);
+    private static final ComponentMapper<TransformComponent> transforms = ComponentMapper.getFor(TransformComponent.class);
+    private static final ComponentMapper<VelocityComponent> velocities = ComponentMapper.getFor(VelocityComponent.class);
+
+    private final World world;
+    private final Array<Entity> entities;
+
+    /** Constructs a physics system.
+     * @param world The world to step
+     * @param entities Every entity, see {@link io.github.lionisaqt.screens.InGame#entities} */
+    public PhysicsSystem(World world, Array<Entity> entities) {
+        this.world = world;
+        this.entities = entities;
+    }
+
+    /** Called every tick. Steps the world and keeps every entity in sync with its body.
+     * @param deltaTime Time since the last tick */
+    public void update(float deltaTime) {
+        for (int i = 0; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            transforms.get(e).previous.set(transforms.get(e).position);
+            bodies.get(e).body.setLinearVelocity(velocities.get(e).linear);
+        }
+
+        world.step(deltaTime, 6, 2);
+
+        for (int i = 0; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            Body body = bodies.get(e).body;
+            transforms.get(e).position.set(body.getPosition());
+            velocities.get(e).linear.set(body.getLinearVelocity());
+        }
+    }
+}
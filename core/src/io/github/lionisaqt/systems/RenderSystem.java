@@ -0,0 +1,34 @@
+package io.github.lionisaqt.systems;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.Array;
+
+import io.github.lionisaqt.components.RenderComponent;
+import io.github.lionisaqt.components.TransformComponent;
+
+/** Draws every entity's sprite where the entity is drawn this frame. */
+public class RenderSystem {
+    private static final ComponentMapper<TransformComponent> transforms = ComponentMapper.getFor(TransformComponent.class);
+    private static final ComponentMapper<RenderComponent> renders = ComponentMapper.getFor(RenderComponent.class);
+
+    private final Array<Entity> entities;
+
+    /** @param entities Every entity, see {@link io.github.lionisaqt.screens.InGame#entities} */
+    public RenderSystem(Array<Entity> entities) { this.entities = entities; }
+
+    /** Draws every entity.
+     * @param batch The batch to draw with */
+    public void draw(Batch batch) {
+        for (int i = 0; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            TransformComponent t = transforms.get(e);
+            Sprite sprite = renders.get(e).sprite;
+
+            sprite.setPosition(t.render.x - sprite.getWidth() / 2, t.render.y - sprite.getHeight() / 2);
+            sprite.draw(batch);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** Unordered set of active objects that can be looped over by index while things are removed from it. Every
+ * object's index is stored, so removal doesn't search; removals are queued and only happen when the set is
+ * flushed, by moving the last object into the removed one's slot.
+ * @param <T> What's in the set */
+public class ActiveSet<T> {
+    private Object[] items;
+    private boolean[] removing;                 // Whether the object in each slot is queued for removal
+    private final ObjectIntMap<T> indices;      // Slot of every object in the set
+    private final Array<T> removals;            // Objects to remove on the next flush
+    public int size;                            // Number of objects in the set, including queued ones
+
+    /** Constructs an empty set. */
+    public ActiveSet() { this(16); }
+
+    /** Constructs an empty set.
+     * @param capacity How many objects fit before the set grows */
+    public ActiveSet(int capacity) {
+        items = new Object[capacity];
+        removing = new boolean[capacity];
+        indices = new ObjectIntMap<>(capacity);
+        removals = new Array<>(false, capacity);
+    }
+
+    /** Adds an object. Adding an object that's already in the set does nothing, except cancel its removal.
+     * @param item The object */
+    public void add(T item) {
+        int i = indices.get(item, -1);
+        if (i >= 0) {
+            if (removing[i]) {
+                removing[i] = false;
+                removals.removeValue(item, true);
+            }
+            return;
+        }
+
+        if (size == items.length) grow();
+        items[size] = item;
+        removing[size] = false;
+        indices.put(item, size);
+        size++;
+    }
+
+    /** @param i Slot of the object, from 0 up to size
+     * @return The object in that slot */
+    @SuppressWarnings("unchecked")
+    public T get(int i) { return (T)items[i]; }
+
+    /** @param item The object
+     * @return Whether the object is in the set and isn't queued for removal */
+    public boolean contains(T item) {
+        int i = indices.get(item, -1);
+        return i >= 0 && !removing[i];
+    }
+
+    /** Queues an object for removal. It stays where it is until the next flush, so loops over the set aren't
+     * disturbed.
+     * @param item The object */
+    public void remove(T item) {
+        int i = indices.get(item, -1);
+        if (i < 0 || removing[i]) return;
+
+        removing[i] = true;
+        removals.add(item);
+    }
+
+    /** Removes every queued object. Call once the set isn't being looped over, like at the end of a tick. */
+    public void flush() {
+        for (int r = 0; r < removals.size; r++) {
+            T item = removals.get(r);
+            int i = indices.remove(item, -1);
+            int last = --size;
+
+            /* Last object takes the removed one's slot */
+            if (i != last) {
+                items[i] = items[last];
+                removing[i] = removing[last];
+                indices.put(get(i), i);
+            }
+            items[last] = null;
+            removing[last] = false;
+
+            removed(item);
+        }
+        removals.clear();
+    }
+
+    /** Removes every object right away. */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            T item = get(i);
+            items[i] = null;
+            removing[i] = false;
+            removed(item);
+        }
+        indices.clear();
+        removals.clear();
+        size = 0;
+    }
+
+    /** Called when an object has left the set, like to free it back to its pool.
+     * @param item The object */
+    protected void removed(T item) { }
+
+    /** Doubles the room for objects. */
+    private void grow() {
+        int capacity = Math.max(8, items.length * 2);
+
+        Object[] resized = new Object[capacity];
+        System.arraycopy(items, 0, resized, 0, size);
+        items = resized;
+
+        boolean[] flags = new boolean[capacity];
+        System.arraycopy(removing, 0, flags, 0, size);
+        removing = flags;
+    }
+}
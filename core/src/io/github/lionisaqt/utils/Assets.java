@@ -4,7 +4,8 @@ import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 
 /** Asset manager. Instead of a new asset (i.e. Texture, Sound, etc.) being created, we can create
@@ -13,11 +14,15 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 public class Assets {
     public final AssetManager manager = new AssetManager();
     public final AssetDescriptor<Skin> skin = new AssetDescriptor<>("skin/quantum-horizon-ui.json", Skin.class);
-    public final AssetDescriptor<Texture> ship = new AssetDescriptor<>("textures/ship.png", Texture.class);
-    public final AssetDescriptor<Texture> kamikaze = new AssetDescriptor<>("textures/kamikaze.png", Texture.class);
-    public final AssetDescriptor<Texture> dogfighter = new AssetDescriptor<>("textures/dogfighter.png", Texture.class);
-    public final AssetDescriptor<Texture> bullet = new AssetDescriptor<>("effects/particle.png", Texture.class);
-    public final AssetDescriptor<Texture> flash = new AssetDescriptor<>("textures/flash.png", Texture.class);
+
+    /* Every in-game image is packed into one atlas by the desktop project's packTextures task, so sprites, bullets
+     * and particles can all be drawn without switching textures */
+    public final AssetDescriptor<TextureAtlas> atlas = new AssetDescriptor<>("atlas/game.atlas", TextureAtlas.class);
+    public final String ship = "ship";
+    public final String kamikaze = "kamikaze";
+    public final String dogfighter = "dogfighter";
+    public final String bullet = "particle";
+    public final String flash = "flash";
 
     // TODO: Convert from Sound to Music and see if sound works on Android
     public final AssetDescriptor<Sound> shoot = new AssetDescriptor<>("sounds/laser2.mp3", Sound.class);
@@ -31,14 +36,14 @@ public class Assets {
     public final AssetDescriptor<Music> bgm2 = new AssetDescriptor<>("music/bgm2.mp3", Music.class);
     public final AssetDescriptor<Music> bgm3 = new AssetDescriptor<>("music/bgm3.mp3", Music.class);
 
-    /** Loads the assets. */
+    /** Queues every asset to load. The skin goes first, so the menu can be shown while gameplay assets are still
+     * loading behind it. Files are decoded on the manager's own thread; call manager.update to finish them. */
     public void load() {
+        /* Menu */
         manager.load(skin);
-        manager.load(ship);
-        manager.load(kamikaze);
-        manager.load(dogfighter);
-        manager.load(bullet);
-        manager.load(flash);
+
+        /* Gameplay */
+        manager.load(atlas);
 
         manager.load(shoot);
         manager.load(death1);
@@ -52,6 +57,14 @@ public class Assets {
         manager.load(bgm3);
     }
 
+    /** @return Whether everything the menu needs is loaded */
+    public boolean isMenuLoaded() { return manager.isLoaded(skin.fileName, Skin.class); }
+
+    /** Finds an image in the atlas. Only call once it's loaded.
+     * @param name Name of the image, which is its file name without the extension
+     * @return The image's region of the atlas */
+    public AtlasRegion region(String name) { return manager.get(atlas).findRegion(name); }
+
     /** Frees manager from memory. */
     public void dispose() {
         manager.dispose();
@@ -1,37 +1,155 @@
 package io.github.lionisaqt.utils;
 
-import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Manifold;
 
-/** Listens for contact between bodies.
+import java.util.Arrays;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.components.FactionComponent;
+import io.github.lionisaqt.components.HealthComponent;
+
+/** Listens for contact between bodies. Nothing is changed while the world is stepping: each contact is written down
+ * and only handled by {@link #dispatch()} once the step is over, by whichever handler there is for the categories
+ * of the two bodies. Damage goes through here too, and an entity whose hp runs out is queued as a death and its
+ * owner told once, so nothing has to check its own hp every tick.
  * @author Ryan Shee */
 public class B2dContactListener implements ContactListener {
+    private static final ComponentMapper<FactionComponent> factions = ComponentMapper.getFor(FactionComponent.class);
+    private static final ComponentMapper<HealthComponent> healths = ComponentMapper.getFor(HealthComponent.class);
+
+    /** Handles contact between two categories of body, after the world has stepped. */
+    public interface Handler {
+        /** @param a Entity in the first category the handler was added for
+         * @param b Entity in the second category */
+        void contact(Entity a, Entity b);
+    }
+
+    private static final int CATEGORIES = 16;   // One per bit of a fixture's category
+
+    /* Handlers by the categories of the two bodies, and whether the bodies come in the other way around */
+    private final Handler[] handlers = new Handler[CATEGORIES * CATEGORIES];
+    private final boolean[] swapped = new boolean[CATEGORIES * CATEGORIES];
+
+    /* Contacts since the last dispatch: which handler, and the two entities in the order it takes them */
+    private short[] kinds = new short[64];
+    private Entity[] first = new Entity[64], second = new Entity[64];
+    private int size;
+
+    private HealthComponent[] dying = new HealthComponent[16];  // Entities whose hp ran out, not yet told
+    private int deathCount;
+
     private TraumaManager manager;
 
+    /* Stats */
+    public int contacts;        // Contacts handled
+    public int deaths;          // Deaths dispatched
+    public int peak;            // Most contacts handled after a single step
+
+    /** Constructs a listener where the player and enemies deal damage to each other on contact.
+     * @param manager Shaken when the player is hit */
     public B2dContactListener(TraumaManager manager) {
         this.manager = manager;
+
+        /* Enemies are items too, but they're handled as enemies */
+        on(JuicyShmup.PLAYER_BIT, JuicyShmup.ENEMY_BIT, new Handler() {
+            @Override
+            public void contact(Entity a, Entity b) { tradeDamage(a, b); }
+        });
     }
 
+    /** Sets what happens when bodies of two categories touch. A body with more than one category bit is handled as
+     * its lowest.
+     * @param a First category, like {@link JuicyShmup#PLAYER_BIT}
+     * @param b Second category
+     * @param handler What happens, or null for nothing */
+    public void on(short a, short b, Handler handler) {
+        int ab = pair(a, b), ba = pair(b, a);
+        handlers[ab] = handlers[ba] = handler;
+        swapped[ab] = false;
+        swapped[ba] = ab != ba;
+    }
+
+    /** @return Index of the handler for two categories */
+    private static int pair(short a, short b) { return category(a) * CATEGORIES + category(b); }
+
+    /** @return Lowest bit of a category */
+    private static int category(short bits) { return Math.min(CATEGORIES - 1, Integer.numberOfTrailingZeros(bits & 0xFFFF)); }
+
     @Override
     public void beginContact(Contact contact) {
-        /* Body variables in case I want to do something with body.isBullet() */
-        Body aBody = contact.getFixtureA().getBody();
-        Body bBody = contact.getFixtureB().getBody();
+        Fixture a = contact.getFixtureA(), b = contact.getFixtureB();
+        int kind = pair(a.getFilterData().categoryBits, b.getFilterData().categoryBits);
+        if (handlers[kind] == null) return;
 
-        /* EntityInfo variables for everything else */
-        EntityInfo a = (EntityInfo)aBody.getUserData();
-        EntityInfo b = (EntityInfo)bBody.getUserData();
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+        }
 
-        /* If two entities of opposing sides collide, deal damage to both of them */
-        if ((a.friendly && !b.friendly) || (!a.friendly && b.friendly)) {
-            a.hp -= b.dmg;
-            b.hp -= a.dmg;
+        Entity aEntity = (Entity)a.getBody().getUserData();
+        Entity bEntity = (Entity)b.getBody().getUserData();
+        boolean swap = swapped[kind];
+        kinds[size] = (short)kind;
+        first[size] = swap ? bEntity : aEntity;
+        second[size] = swap ? aEntity : bEntity;
+        size++;
+    }
 
-            if (a.isPlayer || b.isPlayer) { manager.addTrauma(a.isPlayer ? a.impact : b.impact); }
+    /** Handles every contact since the last dispatch, in the order they happened, then tells the owners of whatever
+     * died. Call after the world steps, and after anything else that deals damage. */
+    public void dispatch() {
+        int handled = size;
+        for (int i = 0; i < size; i++) {
+            handlers[kinds[i]].contact(first[i], second[i]);
+            first[i] = second[i] = null;
         }
+        size = 0;
+        contacts += handled;
+        peak = Math.max(peak, handled);
+
+        /* Deaths can cause more deaths, which are told in the same loop */
+        for (int i = 0; i < deathCount; i++) {
+            HealthComponent health = dying[i];
+            dying[i] = null;
+            health.owner.die();
+        }
+        deaths += deathCount;
+        deathCount = 0;
+    }
+
+    /** Takes hp away from an entity. If that's the blow that kills it, its death is queued for the next dispatch.
+     * @param health The entity's health
+     * @param amount How much hp to take */
+    public void damage(HealthComponent health, int amount) {
+        boolean alive = health.hp > 0;
+        health.hp -= amount;
+        if (!alive || health.hp > 0) return;
+
+        if (deathCount == dying.length) dying = Arrays.copyOf(dying, deathCount * 2);
+        dying[deathCount++] = health;
+    }
+
+    /** Kills an entity outright, unless it's already dead.
+     * @param health The entity's health */
+    public void kill(HealthComponent health) { if (health.hp > 0) damage(health, health.hp); }
+
+    /** Entities of opposing sides deal damage to each other, and the player's side is shaken. */
+    private void tradeDamage(Entity aEntity, Entity bEntity) {
+        FactionComponent a = factions.get(aEntity);
+        FactionComponent b = factions.get(bEntity);
+        if (a.friendly == b.friendly) return;
+
+        damage(healths.get(aEntity), b.dmg);
+        damage(healths.get(bEntity), a.dmg);
+
+        if (a.isPlayer || b.isPlayer) { manager.addTrauma(a.isPlayer ? a.impact : b.impact); }
     }
 
     @Override
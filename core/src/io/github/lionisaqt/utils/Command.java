@@ -0,0 +1,67 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** Everything the player asked for during one tick. Kept to a few bytes, so a whole run fits in a small replay. */
+public class Command {
+    /* Buttons, one bit each */
+    public static final int SHOOT = 1, SELF_DESTRUCT = 2;
+    public static final int TAPS = SELF_DESTRUCT;   // Buttons that are only down for the tick after they're pressed
+
+    private static final float AXIS = 127;  // Steering is stored in steps of 1/127
+
+    byte moveX, moveY;  // Steering on each axis, from -127 to 127
+    byte buttons;       // Buttons held
+
+    /** @return Steering on the x axis, from -1 to 1 */
+    public float getMoveX() { return moveX / AXIS; }
+
+    /** @return Steering on the y axis, from -1 to 1 */
+    public float getMoveY() { return moveY / AXIS; }
+
+    /** @param button The button, e.g. {@link #SHOOT}
+     * @return Whether it's held */
+    public boolean isDown(int button) { return (buttons & button) != 0; }
+
+    /** Sets the steering, clamped to -1 to 1 on each axis.
+     * @param x Steering on the x axis
+     * @param y Steering on the y axis */
+    public void setMove(float x, float y) {
+        moveX = (byte)Math.round(MathUtils.clamp(x, -1, 1) * AXIS);
+        moveY = (byte)Math.round(MathUtils.clamp(y, -1, 1) * AXIS);
+    }
+
+    /** @param button The button, e.g. {@link #SHOOT}
+     * @param down Whether it's held */
+    public void setButton(int button, boolean down) {
+        if (down) buttons |= button;
+        else buttons &= ~button;
+    }
+
+    /** Copies another command.
+     * @param command The command */
+    public void set(Command command) {
+        moveX = command.moveX;
+        moveY = command.moveY;
+        buttons = command.buttons;
+    }
+
+    /** @return The whole command in one int, e.g. to hand it to another thread at once */
+    public int pack() { return moveX & 0xFF | (moveY & 0xFF) << 8 | (buttons & 0xFF) << 16; }
+
+    /** Sets the whole command from one int.
+     * @param packed The command, see {@link #pack()} */
+    public void unpack(int packed) {
+        moveX = (byte)packed;
+        moveY = (byte)(packed >> 8);
+        buttons = (byte)(packed >> 16);
+    }
+
+    /** Lets go of everything. */
+    public void clear() { moveX = moveY = buttons = 0; }
+
+    /** @return Whether both ask for exactly the same */
+    public boolean same(Command command) {
+        return moveX == command.moveX && moveY == command.moveY && buttons == command.buttons;
+    }
+}
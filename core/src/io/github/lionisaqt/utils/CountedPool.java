@@ -0,0 +1,46 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/** A pool that keeps {@link PoolStats}, and that can make its objects ahead of time so they aren't made while
+ * playing.
+ * @param <T> What's pooled */
+public abstract class CountedPool<T> extends Pool<T> {
+    public final PoolStats stats;
+
+    /** Constructs an empty pool with no limit.
+     * @param name What's pooled, for logging */
+    public CountedPool(String name) {
+        super();
+        stats = new PoolStats(name, this);
+    }
+
+    @Override
+    public T obtain() {
+        stats.obtaining();
+        return super.obtain();
+    }
+
+    @Override
+    public void free(T object) {
+        super.free(object);
+        stats.freed(1);
+    }
+
+    @Override
+    public void freeAll(Array<T> objects) {
+        super.freeAll(objects);
+        stats.freed(objects.size);
+    }
+
+    /** Makes objects ahead of time, so they don't have to be made while playing. Not counted as taken.
+     * @param count How many objects the pool should have ready */
+    public void prewarm(int count) {
+        count = Math.min(count, max);
+        while (getFree() < count) {
+            super.free(newObject());
+            stats.warmed++;
+        }
+    }
+}
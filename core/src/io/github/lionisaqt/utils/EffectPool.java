@@ -0,0 +1,156 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.utils.Array;
+
+/** Particle pool for one type of effect, which also holds every effect of that type that's running. Effects are
+ * started through the effects manager, which keeps the total number of particles under its budget by scaling
+ * down each type's emission and lifetimes, lower priorities first. */
+public class EffectPool extends ParticleEffectPool {
+    public final String name;       // What the effect is, for logging
+    public final int priority;      // Types with a higher priority are cut back later
+    public int cap;                 // Most effects of this type running at once
+    public int particles;           // Particles alive in this type's effects, as of the last update
+    public int dropped;             // Effects that weren't started for being over the cap or budget
+    public final PoolStats stats;   // How the pool has been used
+
+    final ActiveSet<PooledEffect> live;     // Effects of this type that are running
+    float scale = 1;                        // How much of its emission and lifetime each effect keeps
+    private final ParticleEffect template;  // Original values to scale from
+
+    /** Constructs a pool.
+     * @param name What the effect is, for logging
+     * @param template The loaded effect every pooled effect copies
+     * @param priority Types with a higher priority are cut back later
+     * @param cap Most effects of this type running at once */
+    public EffectPool(String name, ParticleEffect template, int priority, int cap) {
+        super(template, 1, cap);
+        this.name = name;
+        this.template = template;
+        this.priority = priority;
+        this.cap = cap;
+        stats = new PoolStats(name, this);
+        live = new ActiveSet<PooledEffect>(cap) {
+            @Override
+            protected void removed(PooledEffect p) { p.free(); }
+        };
+    }
+
+    /** Copies the template, along with every particle its emitters can have. An emitter otherwise makes each particle
+     * the first time it needs it, which allocates on every frame an effect grows past the most it's had before. */
+    @Override
+    protected PooledEffect newObject() {
+        PooledEffect p = super.newObject();
+        Array<ParticleEmitter> emitters = p.getEmitters();
+        for (int i = 0; i < emitters.size; i++) {
+            ParticleEmitter e = emitters.get(i);
+            e.addParticles(e.getMaxParticleCount());
+        }
+        p.reset();
+        return p;
+    }
+
+    @Override
+    public PooledEffect obtain() {
+        stats.obtaining();
+        return super.obtain();
+    }
+
+    @Override
+    public void free(PooledEffect effect) {
+        super.free(effect);
+        stats.freed(1);
+    }
+
+    /** Makes effects ahead of time, so copying the template doesn't happen while playing. Not counted as taken.
+     * @param count How many effects the pool should have ready, up to its most */
+    void prewarm(int count) {
+        count = Math.min(count, max);
+        while (getFree() < count) {
+            super.free(newObject());
+            stats.warmed++;
+        }
+    }
+
+    /** Starts an effect of this type at the current scale.
+     * @param x Where the effect starts on the x axis
+     * @param y Where the effect starts on the y axis
+     * @param size How much to scale the particles' size
+     * @param motion How much to scale the particles' motion
+     * @return The started effect */
+    PooledEffect start(float x, float y, float size, float motion) {
+        PooledEffect p = obtain();
+        fit(p, scale);
+        p.setPosition(x, y);
+        p.scaleEffect(size, motion);
+        p.start();
+        live.add(p);
+        return p;
+    }
+
+    /** Updates every running effect, removing finished ones.
+     * @param deltaTime Time since the last update
+     * @return How many particles are alive in this type's effects */
+    int update(float deltaTime) {
+        particles = 0;
+        for (int i = 0; i < live.size; i++) {
+            PooledEffect p = live.get(i);
+            p.update(deltaTime);
+            if (p.isComplete()) live.remove(p);
+            else particles += count(p);
+        }
+        live.flush();   // Finished effects go back to the pool
+        return particles;
+    }
+
+    /** Changes how much emission and lifetime this type's effects keep, including the ones running.
+     * @param scale From 0 for nothing to 1 for the effect as it was made. Rounded to a twentieth, so small changes
+     *              don't refit every effect. */
+    void setScale(float scale) {
+        scale = Math.round(scale * 20) / 20f;
+        if (scale == this.scale) return;
+
+        this.scale = scale;
+        for (int i = 0; i < live.size; i++) fit(live.get(i), scale);
+    }
+
+    /** Draws every running effect.
+     * @param batch The batch used to draw */
+    void draw(Batch batch) {
+        for (int i = 0; i < live.size; i++) live.get(i).draw(batch);
+    }
+
+    /** Scales an effect's emission and lifetimes from the original. Fewer particles go first; lifetimes only get
+     * down to half, so what's left still reads as the same effect. Running emitters pick it up when they restart.
+     * @param p The effect
+     * @param scale From 0 for nothing to 1 for the effect as it was made */
+    private void fit(PooledEffect p, float scale) {
+        Array<ParticleEmitter> emitters = p.getEmitters(), originals = template.getEmitters();
+        float lifeScale = 0.5f + scale / 2;
+
+        for (int i = 0; i < emitters.size; i++) {
+            ParticleEmitter e = emitters.get(i), o = originals.get(i);
+            e.getEmission().setHigh(o.getEmission().getHighMin() * scale, o.getEmission().getHighMax() * scale);
+            e.getEmission().setLow(o.getEmission().getLowMin() * scale, o.getEmission().getLowMax() * scale);
+            e.getLife().setHigh(o.getLife().getHighMin() * lifeScale, o.getLife().getHighMax() * lifeScale);
+            e.getLife().setLow(o.getLife().getLowMin() * lifeScale, o.getLife().getLowMax() * lifeScale);
+        }
+    }
+
+    /** @return How many particles are alive in an effect */
+    private static int count(PooledEffect p) {
+        Array<ParticleEmitter> emitters = p.getEmitters();
+        int count = 0;
+        for (int i = 0; i < emitters.size; i++) count += emitters.get(i).getActiveCount();
+        return count;
+    }
+
+    /** Removes every running effect right away. */
+    void stopAll() {
+        live.clear();
+        particles = 0;
+    }
+}
@@ -3,181 +3,206 @@ package io.github.lionisaqt.utils;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
-import java.util.Random;
-
-import box2dLight.PointLight;
-import box2dLight.RayHandler;
 import io.github.lionisaqt.JuicyShmup;
 
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
+/** Runs every particle and light effect. Particles are kept under a budget: when there are too many, every type
+ * of effect is scaled down to fewer, shorter-lived particles, lowest priority first, until it's back under. */
 public class EffectsManager {
-    public Array<PooledEffect> effects;
-
-    /* Particle pools  */
-    public ParticleEffectPool
-            effectPool,                     // Generic explosion
-            enemyDeathPool,                 // Enemy death
-            shotPool,                       // Player shooting
-            enemyShotPool,                  // Enemy shooting
+    /* Particle pools, drawn in this order */
+    public EffectPool
             enginePool,                     // Player engine
             enemyEnginePool,                // Enemy engine
             tracersPool,                    // Friendly bullet tracer
-            enemyTracersPool;               // Enemy bullet tracer
-
-    public RayHandler rayHandler;
-    public Array<PointLight> lightEffects;  // Holds all light effects for dying entities
-    public Array<PointLight> bgStars;       // Background stars
-    private final short numStars = 45;      // Number of background stars
-    private final short starSpeed = 9;      // Maximum speed of stars
-    public Pool<PointLight> lightPool;      // Pointlight pool for entity deaths
-
-    /** Helper function that loads all the particles and particle pools. */
-    public void loadParticles() {
-        effects = new Array<>();
-        ParticleEffect explosion = new ParticleEffect();
-        explosion.load(Gdx.files.internal("effects/explosion.p"), Gdx.files.internal("effects/"));
-        effectPool = new ParticleEffectPool(explosion, 1, 100);
-
-        /* Enemy death */
-        ParticleEffect eDeath = new ParticleEffect();
-        eDeath.load(Gdx.files.internal("effects/enemy_death.p"), Gdx.files.internal("effects/"));
-        enemyDeathPool = new ParticleEffectPool(eDeath, 1, 100);
-
-        /* Player shoot */
-        ParticleEffect pShoot = new ParticleEffect();
-        pShoot.load(Gdx.files.internal("effects/muzzle_flash.p"), Gdx.files.internal("effects/"));
-        shotPool = new ParticleEffectPool(pShoot, 1, 100);
-
-        /* Enemy shoot */
-        ParticleEffect eShoot = new ParticleEffect();
-        eShoot.load(Gdx.files.internal("effects/enemy_muzzle_flash.p"), Gdx.files.internal("effects/"));
-        enemyShotPool = new ParticleEffectPool(eShoot, 1, 100);
-
-        /* Player engine */
-        ParticleEffect engine = new ParticleEffect();
-        engine.load(Gdx.files.internal("effects/engine.p"), Gdx.files.internal("effects/"));
-        enginePool = new ParticleEffectPool(engine, 1, 100);
-
-        /* Enemy engine */
-        ParticleEffect eEngine = new ParticleEffect();
-        eEngine.load(Gdx.files.internal("effects/enemy_engine.p"), Gdx.files.internal("effects/"));
-        enemyEnginePool = new ParticleEffectPool(eEngine, 1, 100);
-
-        /* Bullet tracers */
-        ParticleEffect tracer = new ParticleEffect();
-        tracer.load(Gdx.files.internal("effects/tracer.p"), Gdx.files.internal("effects/"));
-        tracersPool = new ParticleEffectPool(tracer, 1, 100);
-
-        /* Enemy bullet tracers */
-        ParticleEffect eTracer = new ParticleEffect();
-        eTracer.load(Gdx.files.internal("effects/enemy_tracer.p"), Gdx.files.internal("effects/"));
-        enemyTracersPool = new ParticleEffectPool(eTracer, 1, 100);
+            enemyTracersPool,               // Enemy bullet tracer
+            shotPool,                       // Player shooting
+            enemyShotPool,                  // Enemy shooting
+            effectPool,                     // Generic explosion
+            enemyDeathPool;                 // Enemy death
+    public final Array<EffectPool> pools = new Array<>();
+
+    /* Particle budget */
+    public int particleBudget = 4000;       // Most particles alive before effects are cut back
+    public int particles;                   // Particles alive, as of the last update
+    public int liveEffects;                 // Effects running, as of the last update
+    public float lod = 1;                   // How much detail is left, from 0 to 1
+    private static final float LOD_DROP = 2;        // How fast detail goes while over budget, per second
+    private static final float LOD_RECOVER = 0.5f;  // How fast it comes back once well under, per second
+    private static final float MIN_SCALE = 0.1f;    // Effects scaled below this aren't started at all
+
+    public LightManager lightManager;           // Owns and casts every light
+    public ActiveSet<GameLight> lightEffects;   // Holds all light effects for dying entities
+    private final short spareLights = 64;   // Lights made up front, for enemies and explosions
+    public Starfield starfield;             // Background stars
+
+    /** Helper function that loads all the particles and particle pools. Engine trails and tracers are the first
+     * to be cut back, then muzzle flashes; deaths and explosions are kept the longest. Each pool makes as many
+     * effects up front as play has been seen to need, going by its pool stats.
+     * @param atlas Atlas holding the particle images */
+    public void loadParticles(TextureAtlas atlas) {
+        enginePool = load(atlas, "engine", 0, 4, 1);
+        enemyEnginePool = load(atlas, "enemy_engine", 0, 96, 16);
+        tracersPool = load(atlas, "tracer", 0, 64, 0);
+        enemyTracersPool = load(atlas, "enemy_tracer", 0, 64, 0);
+        shotPool = load(atlas, "muzzle_flash", 1, 16, 4);
+        enemyShotPool = load(atlas, "enemy_muzzle_flash", 1, 32, 4);
+        effectPool = load(atlas, "explosion", 2, 32, 0);
+        enemyDeathPool = load(atlas, "enemy_death", 2, 48, 8);
     }
 
-    /** Helper function that initializes the light array and pool.
-     * @param world RayHandler needs a world to light up */
-    public void loadLightEffects(World world) {
-        rayHandler = new RayHandler(world);
-        rayHandler.setAmbientLight(1f);
+    /** Loads an effect and makes a pool for it.
+     * @param atlas Atlas holding the particle images
+     * @param name File name of the effect, without the extension
+     * @param priority Types with a higher priority are cut back later
+     * @param cap Most effects of this type running at once
+     * @param spare Effects made up front
+     * @return The pool */
+    private EffectPool load(TextureAtlas atlas, String name, int priority, int cap, int spare) {
+        ParticleEffect effect = new ParticleEffect();
+        effect.load(Gdx.files.internal("effects/" + name + ".p"), atlas);
+        EffectPool pool = new EffectPool(name, effect, priority, cap);
+        pool.prewarm(spare);
+        pools.add(pool);
+        return pool;
+    }
 
-        lightEffects = new Array<>();
-        bgStars = new Array<>();
-        lightPool = new Pool<PointLight>() {
-            @Override
-            protected PointLight newObject() {
-                PointLight p = new PointLight(rayHandler, 128, new Color(1, 1, 1, 1), 1, 0, 0);
-                p.setStaticLight(false);
-                p.setSoft(true);
-                return p;
-            }
-        };
+    /** Starts an effect, unless its type is at its cap or has been cut back too far to be worth it.
+     * @param pool Pool of the effect's type
+     * @param x Where the effect starts on the x axis
+     * @param y Where the effect starts on the y axis
+     * @param scale How much to scale the particles' size and motion
+     * @return The started effect, or null if it wasn't started */
+    public PooledEffect start(EffectPool pool, float x, float y, float scale) { return start(pool, x, y, scale, scale); }
+
+    /** Starts an effect, unless its type is at its cap or has been cut back too far to be worth it.
+     * @param pool Pool of the effect's type
+     * @param x Where the effect starts on the x axis
+     * @param y Where the effect starts on the y axis
+     * @param size How much to scale the particles' size
+     * @param motion How much to scale the particles' motion
+     * @return The started effect, or null if it wasn't started */
+    public PooledEffect start(EffectPool pool, float x, float y, float size, float motion) {
+        if (pool.live.size >= pool.cap || pool.scale < MIN_SCALE) {
+            pool.dropped++;
+            return null;
+        }
+        return pool.start(x, y, size, motion);
+    }
 
-        for (int i = 0; i < numStars; i++) {
-            Random rng = new Random();
-            PointLight p = lightPool.obtain();
-            p.setColor(rng.nextFloat(), rng.nextFloat(), rng.nextFloat(), rng.nextFloat() * 0.5f + 0.4f);
-            p.setDistance((rng.nextInt(200) + 100) * PPM);
+    /** Helper function that lays out the background stars, in three layers from far to near.
+     * @param texture Soft dot every star is drawn with
+     * @param random Stream the stars are laid out from */
+    public void loadStarfield(TextureRegion texture, RandomXS128 random) {
+        starfield = new Starfield(texture, JuicyShmup.GAME_WIDTH * PPM, JuicyShmup.GAME_HEIGHT * PPM, random);
+        starfield.addLayer(60, 1.5f, 0.3f, 0.3f);
+        starfield.addLayer(30, 4, 0.6f, 0.45f);
+        starfield.addLayer(12, 8, 1.2f, 0.6f);
+    }
 
-            BodyDef bDef = new BodyDef();
-            bDef.position.set(rng.nextInt((int)(JuicyShmup.GAME_WIDTH * PPM)), rng.nextInt((int)(JuicyShmup.GAME_HEIGHT * PPM)));
-            bDef.type = BodyDef.BodyType.DynamicBody;
-            Body b = world.createBody(bDef);
-            p.attachToBody(b);
+    /** Helper function that initializes the light manager and the light array, and makes every light that should be
+     * needed up front. How many lights are cast at once depends on the platform.
+     * @param world Lights need a world to light up */
+    public void loadLightEffects(World world) {
+        lightManager = new LightManager(world, LightManager.budget(Gdx.app.getType()));
+        lightManager.rayHandler.setAmbientLight(1f);
+        lightManager.prewarm(spareLights);
 
-            p.getBody().setLinearVelocity(0, -rng.nextFloat() * starSpeed - 1);
-            bgStars.add(p);
-        }
+        lightEffects = new ActiveSet<GameLight>() {
+            @Override
+            protected void removed(GameLight p) { lightManager.free(p); }
+        };
     }
 
     /** Updates all effects, and removes it from the active array when finished.
      * @param deltaTime Time since last frame was called
      * @param timeMultiplier Game's game dilation multiplier */
-    public void update(float deltaTime, float timeMultiplier, Camera camera, Viewport viewport) {
-        for (ParticleEffectPool.PooledEffect p : effects) {
-            p.update(deltaTime / timeMultiplier);
-            if (p.isComplete()) {
-                p.free();
-                effects.removeValue(p, true);
-            }
+    public void update(float deltaTime, float timeMultiplier) {
+        particles = 0;
+        liveEffects = 0;
+        for (int i = 0; i < pools.size; i++) {
+            EffectPool pool = pools.get(i);
+            particles += pool.update(deltaTime / timeMultiplier);
+            liveEffects += pool.live.size;
         }
+        govern(deltaTime);
 
         /* Shrinks light effect from explosion */
-        for (PointLight p : lightEffects) {
-            if (p.getDistance() > 0.01) p.setDistance(p.getDistance() - deltaTime * 10);
-            else {
-                lightEffects.removeValue(p, true);
-                lightPool.free(p);
-            }
+        for (int i = 0; i < lightEffects.size; i++) {
+            GameLight p = lightEffects.get(i);
+            if (p.getRange() > 0.01) p.setDistance(p.getRange() - deltaTime * 10);
+            else lightEffects.remove(p);
         }
+        lightEffects.flush();
 
-        backgroundUpdate();
-
-        rayHandler.setCombinedMatrix(camera.combined,0,0, viewport.getScreenWidth(), viewport.getScreenHeight());
-        rayHandler.update();
+        starfield.update(deltaTime / timeMultiplier);
     }
 
+    /** Lowers the detail while there are more particles than the budget, and raises it again once there are well
+     * under. Each type keeps more of the detail the higher its priority.
+     * @param deltaTime Time since last frame was called */
+    private void govern(float deltaTime) {
+        if (particles > particleBudget) lod = Math.max(0, lod - LOD_DROP * deltaTime);
+        else if (particles < particleBudget * 3 / 4) lod = Math.min(1, lod + LOD_RECOVER * deltaTime);
 
-    private void backgroundUpdate() {
-        Random rng = new Random();
-        for (PointLight p : bgStars) {
-            if (p.getBody().getPosition().y < -p.getDistance()) {
-                p.setColor(rng.nextFloat(), rng.nextFloat(), rng.nextFloat(), rng.nextFloat() * 0.5f + 0.4f);
-                p.setDistance((rng.nextInt(200) + 100) * PPM);
-
-                p.getBody().setTransform(rng.nextInt((int)(JuicyShmup.GAME_WIDTH * PPM)), JuicyShmup.GAME_HEIGHT * PPM + p.getDistance(), 0);
-                p.getBody().setLinearVelocity(0, -rng.nextFloat() * starSpeed - 1);
-            }
+        for (int i = 0; i < pools.size; i++) {
+            EffectPool pool = pools.get(i);
+            pool.setScale(Math.min(1, lod * (1 + pool.priority)));
         }
     }
 
+    /** Flashes a light that shrinks away, like for an explosion.
+     * @param priority Which lights are kept when there are too many, see {@link LightManager}
+     * @param color Color of the light
+     * @param distance How far the light reaches at first
+     * @param x Where the light is on the x axis
+     * @param y Where the light is on the y axis */
+    public void flash(int priority, Color color, float distance, float x, float y) {
+        lightEffects.add(lightManager.obtain(priority, color, distance, x, y));
+    }
+
+    /** Draws the background, under everything else.
+     * @param batch The batch used to draw */
+    public void drawBackground(Batch batch) { starfield.draw(batch); }
+
     /** Draws all active effects.
-     * @param batch The SpriteBatch used to draw */
-    public void draw(SpriteBatch batch) {
-        for (PooledEffect p : effects) p.draw(batch);
+     * @param batch The batch used to draw */
+    public void draw(Batch batch) {
+        for (int i = 0; i < pools.size; i++) pools.get(i).draw(batch);
     }
 
-    /** Renders light so the world is illuminated. */
-    public void renderLight() { rayHandler.render(); }
+    /** Ranks and casts light, ready to be rendered. Only needed when something is drawn.
+     * @param focus Where the player is, since lights near them matter more */
+    public void castLight(Vector2 focus) {
+        lightManager.rank(focus, lightManager.frame);
+        castLight(lightManager.frame);
+    }
+
+    /** Casts lights that were already ranked, maybe on another thread.
+     * @param frame The lights to cast */
+    public void castLight(LightFrame frame) { lightManager.cast(frame); }
+
+    /** Renders the light cast last, so the world is illuminated.
+     * @param camera Camera the light is rendered through
+     * @param viewport Viewport for the light's screen size */
+    public void renderLight(Camera camera, Viewport viewport) { lightManager.render(camera, viewport); }
 
     /** Remove all active effects from the pool. */
     public void dispose() {
-        for (int i = effects.size - 1; i >= 0; i--)
-            effects.get(i).free();
-        effects.clear();
-
-        rayHandler.removeAll();
-        rayHandler.dispose();
+        for (int i = 0; i < pools.size; i++) pools.get(i).stopAll();
+        particles = liveEffects = 0;
+        lightEffects.clear();
+        lightManager.dispose();
     }
 }
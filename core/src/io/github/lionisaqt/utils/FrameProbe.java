@@ -0,0 +1,18 @@
+package io.github.lionisaqt.utils;
+
+/** Told when each part of a frame starts and ends, e.g. to time it or count what it allocates. Phases can run more
+ * than once a frame, since the simulation can tick more than once. */
+public interface FrameProbe {
+    /* Phases of a frame, in the order they first run. The frame itself wraps every other phase */
+    int PHYSICS = 0, CONTACTS = 1, PLAYER = 2, BULLETS = 3, DIRECTOR = 4, EFFECTS = 5, TRAUMA = 6, SOUNDS = 7;
+    int LIGHTS = 8, LIGHTMAP = 9, SPRITES = 10, UI = 11, FRAME = 12;
+    int PHASES = 13;
+    String[] NAMES = { "physics", "contacts", "player", "bullets", "director", "effects", "trauma", "sounds",
+            "lights", "lightmap", "sprites", "ui", "frame" };
+
+    /** @param phase The phase starting */
+    void begin(int phase);
+
+    /** @param phase The phase that just ended */
+    void end(int phase);
+}
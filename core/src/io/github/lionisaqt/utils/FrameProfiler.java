@@ -0,0 +1,146 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/** Times every phase of the last few seconds of frames and shows their 50th, 95th and 99th percentiles over the
+ * HUD, along with how many draw calls the sprite batch made and how few the sorted sprites could have taken. Only
+ * costs anything while it's the screen's probe. */
+public class FrameProfiler implements FrameProbe {
+    private static final int WINDOW = 240;          // Frames the percentiles are taken over
+    private static final float REFRESH = 0.25f;     // Seconds between updates of the overlay
+
+    private final SpriteBatch batch;
+    public final Label label;                       // The overlay, add it to a stage
+
+    /* Nanoseconds each phase took, one slot per frame in the window */
+    private final long[][] samples = new long[PHASES][WINDOW];
+    private final int[] drawCalls = new int[WINDOW];    // Every draw call of the batch, UI included
+    private final int[] spriteCalls = new int[WINDOW];  // Draw calls of the sprite pass alone
+    private final int[] sortedCalls = new int[WINDOW];  // Least draw calls the sprites were sorted into
+    private int cursor, filled;
+
+    /* The frame being timed */
+    private final long[] start = new long[PHASES];
+    private final long[] current = new long[PHASES];
+    private int totalCallsAtStart, currentSpriteCalls, currentSortedCalls;
+    private boolean inFrame;    // Whether the frame began while this was the probe, so it's safe to time
+
+    private long lastRefresh;
+    private final long[] sorted = new long[WINDOW];
+    private final StringBuilder text = new StringBuilder();
+
+    /** Constructs a profiler with its overlay hidden.
+     * @param batch Batch whose draw calls are counted
+     * @param skin Skin the overlay's label is styled with */
+    public FrameProfiler(SpriteBatch batch, Skin skin) {
+        this.batch = batch;
+        label = new Label("", skin);
+        label.setAlignment(Align.topLeft);
+        label.setFontScale(0.75f);
+        label.setVisible(false);
+    }
+
+    @Override
+    public void begin(int phase) {
+        if (phase == FRAME) {
+            inFrame = true;
+            totalCallsAtStart = batch.totalRenderCalls;
+        }
+        start[phase] = TimeUtils.nanoTime();
+    }
+
+    @Override
+    public void end(int phase) {
+        if (!inFrame) return;
+
+        current[phase] += TimeUtils.nanoTime() - start[phase];
+        if (phase == SPRITES) currentSpriteCalls = batch.renderCalls;
+        if (phase == FRAME) endFrame();
+    }
+
+    /** Counts the draw calls the frame's sprites were sorted into, for comparing with what the batch made.
+     * @param drawCalls Least draw calls the sprites could take */
+    public void sorted(int drawCalls) { if (inFrame) currentSortedCalls = drawCalls; }
+
+    /** Moves the frame's timings into the window and refreshes the overlay if it's time. */
+    private void endFrame() {
+        inFrame = false;
+        for (int i = 0; i < PHASES; i++) {
+            samples[i][cursor] = current[i];
+            current[i] = 0;
+        }
+        drawCalls[cursor] = batch.totalRenderCalls - totalCallsAtStart;
+        spriteCalls[cursor] = currentSpriteCalls;
+        sortedCalls[cursor] = currentSortedCalls;
+        currentSpriteCalls = currentSortedCalls = 0;
+
+        cursor = (cursor + 1) % WINDOW;
+        if (filled < WINDOW) filled++;
+
+        if (label.isVisible() && TimeUtils.timeSinceNanos(lastRefresh) > REFRESH * 1000000000L) {
+            lastRefresh = TimeUtils.nanoTime();
+            refresh();
+        }
+    }
+
+    /** Rewrites the overlay, in microseconds. */
+    private void refresh() {
+        text.setLength(0);
+        text.append("phase      p50    p95    p99 us\n");
+        for (int i = 0; i < PHASES; i++) {
+            System.arraycopy(samples[i], 0, sorted, 0, filled);
+            Arrays.sort(sorted, 0, filled);
+
+            text.append(NAMES[i]);
+            for (int pad = NAMES[i].length(); pad < 8; pad++) text.append(' ');
+            append(percentile(50));
+            append(percentile(95));
+            append(percentile(99));
+            text.append('\n');
+        }
+
+        int worst = 0;
+        for (int i = 0; i < filled; i++) worst = Math.max(worst, drawCalls[i]);
+        int last = (cursor + WINDOW - 1) % WINDOW;
+        text.append("draw calls ").append(drawCalls[last]).append(" (sprites ").append(spriteCalls[last])
+                .append(", sorted into ").append(sortedCalls[last]).append(", worst ").append(worst).append(')');
+
+        /* Grows downwards from where it was put */
+        float left = label.getX(), top = label.getY(Align.top);
+        label.setText(text);
+        label.pack();
+        label.setPosition(left, top, Align.topLeft);
+    }
+
+    /** @return The given percentile of the sorted window, in microseconds */
+    private int percentile(int p) {
+        if (filled == 0) return 0;
+        return (int)(sorted[Math.min(filled - 1, filled * p / 100)] / 1000);
+    }
+
+    /** Appends a number right-aligned in a column. */
+    private void append(int value) {
+        int digits = value < 10 ? 1 : (int)Math.log10(value) + 1;
+        for (int pad = digits; pad < 7; pad++) text.append(' ');
+        text.append(value);
+    }
+
+    /** Shows or hides the overlay. Timing goes on either way for as long as the profiler is the screen's probe.
+     * @param visible Whether the overlay is shown */
+    public void setVisible(boolean visible) {
+        label.setVisible(visible);
+        if (!visible) return;
+
+        /* Whatever was half timed when it was last hidden is thrown out */
+        inFrame = false;
+        Arrays.fill(current, 0);
+        lastRefresh = 0;
+    }
+}
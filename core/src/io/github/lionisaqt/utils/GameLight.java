@@ -0,0 +1,45 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.graphics.Color;
+
+/** A light as its owner sees it: where it is, what color, how far it reaches and whether it's on. The light manager
+ * ranks these every frame and only casts the most important ones, each through one of its own point lights, so a
+ * light can be moved and switched by the simulation while another thread draws. */
+public class GameLight {
+    public int priority;                    // Which lights are kept when there are too many, higher first
+    final Color color = new Color();
+    private float x, y;
+    private float range;                    // How far the light reaches at full detail
+    private boolean active;                 // Whether the owner has it on
+    float importance;                       // Rank among the manager's lights, higher first
+
+    /** Constructs a light that's off. Use the light manager instead, so the light is ranked by it. */
+    GameLight() { }
+
+    /** Turns the light on or off. It's only cast while the manager has room for it too.
+     * @param active Whether the light is on */
+    public void setActive(boolean active) { this.active = active; }
+
+    /** @return Whether the light is on, even if the manager isn't casting it right now */
+    public boolean isActive() { return active; }
+
+    /** @param x Where the light is on the x axis
+     * @param y Where the light is on the y axis */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getX() { return x; }
+    public float getY() { return y; }
+
+    /** @param color Color of the light, copied */
+    public void setColor(Color color) { this.color.set(color); }
+
+    /** Sets how far the light reaches at full detail.
+     * @param dist The distance */
+    public void setDistance(float dist) { range = dist; }
+
+    /** @return How far the light reaches at full detail */
+    public float getRange() { return range; }
+}
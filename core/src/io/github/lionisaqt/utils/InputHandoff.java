@@ -0,0 +1,48 @@
+package io.github.lionisaqt.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Input sampled once a frame on the rendering thread and handed to the simulation, which takes it once a tick,
+ * maybe on its own thread, without locks. The newest steering always wins, but a button pressed since the last tick
+ * is still down for the next one, so a tap on a frame with no tick isn't lost. Taps, see {@link Command#TAPS}, are
+ * only down for the first tick that takes them, so a frame with more than one tick doesn't repeat them. */
+public class InputHandoff implements InputSource {
+    private static final int PRESSED = 24;      // Where buttons pressed since the last tick are kept
+    private static final int LATEST = (1 << PRESSED) - 1;
+    private static final int HELD = LATEST & ~(Command.TAPS << 16);  // What's left of the newest command once taken
+
+    private final InputSource source;
+    private final Command sampled = new Command();
+    private final AtomicInteger latest = new AtomicInteger();  // Newest command, then buttons pressed since the last tick
+
+    /** @param source Where input comes from, sampled once a frame on the rendering thread */
+    public InputHandoff(InputSource source) { this.source = source; }
+
+    /** Samples the source and hands it over. Call on the rendering thread every frame. */
+    public void post() {
+        source.sample(sampled);
+        int buttons = sampled.pack() >>> 16;
+
+        int old, next;
+        do {
+            old = latest.get();
+            next = sampled.pack() | (old >>> PRESSED | buttons) << PRESSED;
+        } while (!latest.compareAndSet(old, next));
+    }
+
+    /** Takes the newest input, on the simulation thread. */
+    @Override
+    public void sample(Command command) {
+        int old;
+        do {
+            old = latest.get();
+        } while (!latest.compareAndSet(old, old & HELD));
+        command.unpack(old & LATEST | (old >>> PRESSED) << 16);
+    }
+
+    @Override
+    public boolean isFinished() { return source.isFinished(); }
+
+    @Override
+    public void dispose() { source.dispose(); }
+}
@@ -0,0 +1,14 @@
+package io.github.lionisaqt.utils;
+
+/** Where gameplay input comes from: the player, or a replay. Sampled once per simulation tick. */
+public interface InputSource {
+    /** Fills in what was asked for this tick.
+     * @param command Command to fill in, still holding last tick's */
+    void sample(Command command);
+
+    /** @return Whether there's no more input coming, like at the end of a replay */
+    boolean isFinished();
+
+    /** Lets go of anything held open, like a file. */
+    void dispose();
+}
@@ -0,0 +1,21 @@
+package io.github.lionisaqt.utils;
+
+/** Every light to cast in one frame, most important first, as plain numbers. Filled in by the light manager's
+ * ranking and read back when the lights are cast, which can happen on another thread. */
+public class LightFrame {
+    public int count;                       // Lights to cast
+    final float[] x, y, distance;
+    final float[] color;                    // Packed, see Color.toFloatBits
+
+    /** Constructs an empty frame.
+     * @param capacity Most lights cast at once */
+    public LightFrame(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        distance = new float[capacity];
+        color = new float[capacity];
+    }
+
+    /** @return Most lights the frame holds */
+    public int capacity() { return x.length; }
+}
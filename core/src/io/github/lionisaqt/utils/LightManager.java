@@ -0,0 +1,186 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import java.util.Comparator;
+
+import box2dLight.PointLight;
+import box2dLight.RayHandler;
+
+/** Owns every light in the game. Lights are pooled, so spawning things doesn't build new lights. Each frame, lights
+ * are ranked by priority and then by how close they are to the player; only the top of the list is cast, each by one
+ * of a fixed set of point lights made up front, and only the very top gets every ray and its full distance. Ranking
+ * only touches the game's lights and casting only touches the point lights, so the two can run on different
+ * threads with a {@link LightFrame} passed between them. */
+public class LightManager {
+    /* Priorities, lowest first */
+    public static final int BULLET = 0, ENEMY = 1, EXPLOSION = 2, PLAYER = 3;
+
+    private static final int RAYS = 128;                // Rays of a light at full detail
+    private static final int MINOR_RAYS = 32;           // Rays of a light outside the full detail ones
+    private static final float MINOR_DISTANCE = 0.75f;  // How much of its distance a light outside them keeps
+    private static final float PRIORITY_WEIGHT = 10000; // Outweighs any distance squared on the playfield
+
+    public final RayHandler rayHandler;
+    public final int maxLights;     // Most lights cast at once
+    public final int fullDetail;    // How many of the most important lights keep every ray and their full distance
+    public int cast;                // Lights cast last frame
+    public final LightFrame frame;  // Ranking handed to casting when both happen on the same thread
+
+    private final Array<GameLight> lights = new Array<>(false, 64);   // Every light made, pooled or not
+    private final CountedPool<GameLight> pool = new CountedPool<GameLight>("lights") {
+        @Override
+        protected GameLight newObject() {
+            GameLight light = new GameLight();
+            lights.add(light);
+            return light;
+        }
+
+        @Override
+        protected void reset(GameLight light) { light.setActive(false); } // Not cast while it's in the pool
+    };
+    private final PointLight[] casters;     // The ith most important light is cast by the ith of these
+    private final Color color = new Color();
+    private final Comparator<GameLight> byImportance = new Comparator<GameLight>() {
+        @Override
+        public int compare(GameLight a, GameLight b) { return Float.compare(b.importance, a.importance); }
+    };
+
+    /** Constructs a light manager with its own ray handler.
+     * @param world World the lights are cast in
+     * @param maxLights Most lights cast at once, see {@link #budget(ApplicationType)} */
+    public LightManager(World world, int maxLights) {
+        rayHandler = new RayHandler(world);
+        this.maxLights = maxLights;
+        fullDetail = Math.max(1, maxLights / 4);
+        frame = new LightFrame(maxLights);
+
+        /* Ray counts are fixed per slot, so nothing is reallocated when lights change rank */
+        casters = new PointLight[maxLights];
+        for (int i = 0; i < maxLights; i++) {
+            PointLight c = new PointLight(rayHandler, i < fullDetail ? RAYS : MINOR_RAYS, Color.WHITE, 1, 0, 0);
+            c.setStaticLight(false);
+            c.setSoft(true);
+            c.setActive(false);
+            casters[i] = c;
+        }
+    }
+
+    /** Most lights worth casting at once on each platform. Phones raycast on a much smaller budget.
+     * @param type The platform
+     * @return How many lights to cast */
+    public static int budget(ApplicationType type) {
+        switch (type) {
+            case Android:
+            case iOS:
+                return 16;
+            case WebGL:
+                return 24;
+            default:
+                return 64;
+        }
+    }
+
+    /** Makes lights ahead of time, so they don't have to be made while playing.
+     * @param count How many lights the pool should have ready */
+    public void prewarm(int count) { pool.prewarm(count); }
+
+    /** Gets a light from the pool and turns it on.
+     * @param priority Which lights are kept when there are too many, higher first
+     * @param color Color of the light
+     * @param distance How far the light reaches
+     * @param x Initial x position
+     * @param y Initial y position
+     * @return The light */
+    public GameLight obtain(int priority, Color color, float distance, float x, float y) {
+        GameLight light = pool.obtain();
+        light.priority = priority;
+        light.setColor(color);
+        light.setDistance(distance);
+        light.setPosition(x, y);
+        light.setActive(true);
+        return light;
+    }
+
+    /** Turns a light off and puts it back in the pool. It ranks last from the next {@link #rank} on, so no point light
+     * casts it until it's obtained again.
+     * @param light The light */
+    public void free(GameLight light) { pool.free(light); }
+
+    /** Ranks every light and writes down which are cast, and how far they reach. Call once per frame, on the thread
+     * that moves the lights.
+     * @param focus Where the player is; lights further away rank lower among their priority
+     * @param frame Where the lights to cast are written, most important first */
+    public void rank(Vector2 focus, LightFrame frame) {
+        for (int i = 0; i < lights.size; i++) {
+            GameLight l = lights.get(i);
+            l.importance = l.isActive() ? l.priority * PRIORITY_WEIGHT - focus.dst2(l.getX(), l.getY()) : -Float.MAX_VALUE;
+        }
+        lights.sort(byImportance);
+
+        /* Lights that are off sort last */
+        int n = 0, most = Math.min(maxLights, frame.capacity());
+        for (int i = 0; i < lights.size && n < most; i++) {
+            GameLight l = lights.get(i);
+            if (!l.isActive()) break;
+
+            frame.x[n] = l.getX();
+            frame.y[n] = l.getY();
+            frame.distance[n] = l.getRange() * (n < fullDetail ? 1 : MINOR_DISTANCE);
+            frame.color[n] = l.color.toFloatBits();
+            n++;
+        }
+        frame.count = n;
+    }
+
+    /** Moves the point lights to a ranking and raycasts them. Call on the rendering thread, before rendering.
+     * @param frame The lights to cast, most important first */
+    public void cast(LightFrame frame) {
+        for (int i = 0; i < casters.length; i++) {
+            PointLight c = casters[i];
+            if (i >= frame.count) {
+                c.setActive(false);
+                continue;
+            }
+
+            Color.abgr8888ToColor(color, frame.color[i]);
+            c.setColor(color);
+            c.setPosition(frame.x[i], frame.y[i]);
+            c.setDistance(frame.distance[i]);
+            c.setActive(true);
+        }
+        cast = frame.count;
+        rayHandler.update();
+    }
+
+    /** Renders every light cast.
+     * @param camera Camera the light is rendered through
+     * @param viewport Viewport for the light's screen size */
+    public void render(Camera camera, Viewport viewport) {
+        rayHandler.setCombinedMatrix(camera.combined, 0, 0, viewport.getScreenWidth(), viewport.getScreenHeight());
+        rayHandler.render();
+    }
+
+    /** @return How many lights have been made, cast or not */
+    public int size() { return lights.size; }
+
+    /** @return How many lights are in the pool */
+    public int getFree() { return pool.getFree(); }
+
+    /** @return How the light pool has been used */
+    public PoolStats getPoolStats() { return pool.stats; }
+
+    /** Removes every light and disposes the ray handler, along with its point lights. */
+    public void dispose() {
+        lights.clear();
+        pool.clear();
+        rayHandler.removeAll();
+        rayHandler.dispose();
+    }
+}
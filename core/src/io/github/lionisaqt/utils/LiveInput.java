@@ -0,0 +1,39 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+/** Input from the player: tilt and touch on phones, arrow keys and space on desktop. Keys that are only read as just
+ * pressed are only true for one frame, so this is sampled once a frame through an {@link InputHandoff}, never once
+ * a tick. */
+public class LiveInput implements InputSource {
+    @Override
+    public void sample(Command command) {
+        command.clear();
+
+        switch (Gdx.app.getType()) {
+            case Android:
+            case iOS:
+                command.setMove(-Gdx.input.getAccelerometerX(), -Gdx.input.getAccelerometerY());
+                command.setButton(Command.SHOOT, Gdx.input.isTouched());
+                break;
+            case Desktop:
+                float x = 0, y = 0;
+                if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) x -= 1;
+                if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) x += 1;
+                if (Gdx.input.isKeyPressed(Input.Keys.UP)) y += 1;
+                if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) y -= 1;
+                command.setMove(x, y);
+                command.setButton(Command.SHOOT, Gdx.input.isKeyPressed(Input.Keys.SPACE));
+                command.setButton(Command.SELF_DESTRUCT, Gdx.input.isKeyJustPressed(Input.Keys.K));
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public boolean isFinished() { return false; }
+
+    @Override
+    public void dispose() { }
+}
@@ -0,0 +1,44 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.Pool;
+
+/** How a pool has been used, so it can be sized from real play instead of guessed. A miss is an object made while
+ * playing because the pool was empty, which is where spawn hitches come from; objects made ahead of time don't count
+ * as misses, or as being taken. */
+public class PoolStats {
+    public final String name;   // What's pooled, for logging
+    private final Pool<?> pool;
+
+    public int obtains;         // Objects taken from the pool
+    public int misses;          // Objects made while playing, because none were free
+    public int inUse;           // Objects taken and not given back yet
+    public int peak;            // Most objects taken at once
+    public int warmed;          // Objects made ahead of time
+
+    /** @param name What's pooled, for logging
+     * @param pool The pool being counted */
+    PoolStats(String name, Pool<?> pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    /** Counts an object about to be taken from the pool. */
+    void obtaining() {
+        obtains++;
+        if (pool.getFree() == 0) misses++;
+        if (++inUse > peak) peak = inUse;
+    }
+
+    /** Counts objects given back to the pool.
+     * @param count How many */
+    void freed(int count) { inUse -= count; }
+
+    /** @return How many objects are in the pool, ready to be taken */
+    public int getFree() { return pool.getFree(); }
+
+    @Override
+    public String toString() {
+        return name + ": " + obtains + " obtained, " + misses + " made while playing, " + peak + " in use at most, "
+                + getFree() + " free of " + warmed + " made ahead";
+    }
+}
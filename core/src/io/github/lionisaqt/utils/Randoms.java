@@ -0,0 +1,40 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/** Every random number in the game, drawn from one seed. Each stream is its own xorshift128+ generator, so how
+ * often the camera shakes or which song plays never changes what gameplay rolls next, and a run plays out the same
+ * way every time for the same seed. Streams aren't safe to share between threads: when the simulation has its own
+ * thread, only the drawing thread draws from audio, and every other stream belongs to the simulation. */
+public class Randoms {
+    public final RandomXS128 gameplay = new RandomXS128();  // Anything that changes how the game plays out
+    public final RandomXS128 cosmetic = new RandomXS128();  // Screen shake, flicker, stars
+    public final RandomXS128 audio = new RandomXS128();     // Which song plays
+    public final RandomXS128 sounds = new RandomXS128();    // Which sound an entity makes, picked by the simulation
+
+    private long seed;
+
+    /** Constructs every stream from one seed.
+     * @param seed The seed */
+    public Randoms(long seed) { setSeed(seed); }
+
+    /** Restarts every stream from a seed. Each stream hashes its own offset of the seed, so they don't follow
+     * each other.
+     * @param seed The seed */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        gameplay.setSeed(seed);
+        cosmetic.setSeed(seed + 1);
+        audio.setSeed(seed + 2);
+        sounds.setSeed(seed + 3);
+    }
+
+    /** @return The seed every stream was last started from */
+    public long getSeed() { return seed; }
+
+    /** @param random Stream to draw from
+     * @param min Smallest value
+     * @param max Largest value
+     * @return A random float between min and max */
+    public static float range(RandomXS128 random, float min, float max) { return min + random.nextFloat() * (max - min); }
+}
@@ -0,0 +1,470 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/** Stands in for a sprite batch, but queues what's drawn instead of drawing it. Every quad goes in a layer, and layers
+ * are drawn in order; within a layer, quads are sorted by blend function and then texture, so the real batch only
+ * flushes when one of those changes, not every time the drawing code switches back and forth. The sort is a radix
+ * sort over each quad's key, done when the queue is ended, and it's stable, so quads with the same key keep the
+ * order they were queued in. A queue can be filled and sorted on one thread and drawn on another. Projection,
+ * transform and shader are only kept so they can be read back; the real batch draws with its own. Nothing is
+ * allocated once the queue has grown to its biggest frame. */
+public class RenderQueue implements Batch {
+    /* Layers, drawn in this order */
+    public static final int BACKGROUND = 0, ENTITIES = 1, FLASHES = 2, BULLETS = 3, EFFECTS = 4;
+
+    private static final int QUAD = 20;     // Floats per quad: position, color and texture coordinates of each corner
+    private static final int BLEND = 5;     // Ints per blend state: source, destination, source alpha, destination
+                                            // alpha, and 1 if blending is on
+
+    /* Quads as they were queued. Each key is the layer, blend state and texture, from most to least significant */
+    private final FloatArray vertices = new FloatArray(4096);
+    private int[] keys = new int[256];
+    private int quads;
+    private int layer;
+
+    /* What the numbers in keys stand for, numbered as they're first queued each frame */
+    private final Array<Texture> textures = new Array<>();
+    private final IntArray blends = new IntArray();
+    private Texture lastTexture;
+    private int lastTextureIndex;
+    private int blendIndex = -1;            // Number of the current blend state, -1 until a quad uses it
+
+    /* Quads in the order they're drawn, in runs that share a texture and blend state */
+    private int[] order = new int[256], scratch = new int[256];
+    private final int[] counts = new int[4 * 256];  // How many keys have each value of each byte, least significant first
+    private boolean inOrder;                        // Whether the quads were already queued in order
+    private final FloatArray sorted = new FloatArray(4096);
+    private FloatArray drawn = sorted;              // The quads in order, sorted or as they were queued
+    private final IntArray runs = new IntArray();   // First float of each run, then its key without the layer
+    public int drawCalls;                           // Runs when the queue was last ended; the batch flushes at least
+                                                    // once for each
+    private final float[] corners = new float[8];   // Scratch for rotated and scaled quads
+
+    /* Batch state */
+    private final Color color = new Color(1, 1, 1, 1);
+    private float packedColor = color.toFloatBits();
+    private int blendSrc = GL20.GL_SRC_ALPHA, blendDst = GL20.GL_ONE_MINUS_SRC_ALPHA;
+    private int blendSrcAlpha = GL20.GL_SRC_ALPHA, blendDstAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+    private boolean blending = true, drawing;
+    private final Matrix4 projection = new Matrix4(), transform = new Matrix4();
+    private ShaderProgram shader;
+
+    /** Empties the queue and starts queueing again, in the bottom layer. Color and blending carry over, like on a
+     * batch. */
+    @Override
+    public void begin() {
+        vertices.clear();
+        quads = 0;
+        layer = 0;
+        textures.clear();
+        blends.clear();
+        lastTexture = null;
+        blendIndex = -1;
+        drawing = true;
+    }
+
+    /** Stops queueing and sorts the queue, ready to be drawn. */
+    @Override
+    public void end() {
+        drawing = false;
+        sort();
+        gather();
+    }
+
+    /** Sets the layer every quad queued from now on goes in. Higher layers are drawn over lower ones.
+     * @param layer The layer, from 0 to 127, e.g. {@link #ENTITIES} */
+    public void setLayer(int layer) { this.layer = layer; }
+
+    /** Draws the sorted queue with a real batch, leaving its blending as it was.
+     * @param batch The batch, already begun */
+    public void draw(Batch batch) {
+        int src = batch.getBlendSrcFunc(), dst = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha(), dstAlpha = batch.getBlendDstFuncAlpha();
+        boolean wasBlending = batch.isBlendingEnabled();
+
+        for (int r = 0; r < runs.size; r += 2) {
+            int from = runs.get(r), to = r + 2 < runs.size ? runs.get(r + 2) : drawn.size;
+            int key = runs.get(r + 1);
+            int b = (key >>> 16 & 0xFF) * BLEND;
+
+            batch.setBlendFunctionSeparate(blends.get(b), blends.get(b + 1), blends.get(b + 2), blends.get(b + 3));
+            if (blends.get(b + 4) != 0) batch.enableBlending();
+            else batch.disableBlending();
+            batch.draw(textures.get(key & 0xFFFF), drawn.items, from, to - from);
+        }
+
+        batch.setBlendFunctionSeparate(src, dst, srcAlpha, dstAlpha);
+        if (wasBlending) batch.enableBlending();
+        else batch.disableBlending();
+    }
+
+    /** @return Quads queued since the queue was begun */
+    public int size() { return quads; }
+
+    /** Sorts the queued quads by key into {@link #order}, a byte at a time from the least significant. Every byte is
+     * counted in one pass, which also finds out if the quads are in order already, as they are when nothing in a
+     * layer changes blending. Bytes every key shares, like the texture when everything is in one atlas, are skipped. */
+    private void sort() {
+        int n = quads;
+        int[] keys = this.keys, counts = this.counts;
+
+        Arrays.fill(counts, 0);
+        inOrder = true;
+        for (int i = 0, last = 0; i < n; i++) {
+            int key = keys[i];
+            counts[key & 0xFF]++;
+            counts[256 + (key >>> 8 & 0xFF)]++;
+            counts[512 + (key >>> 16 & 0xFF)]++;
+            counts[768 + (key >>> 24)]++;
+            if (key < last) inOrder = false;
+            last = key;
+        }
+        if (inOrder) return;
+
+        if (order.length < n) {
+            order = new int[keys.length];
+            scratch = new int[keys.length];
+        }
+        for (int i = 0; i < n; i++) order[i] = i;
+
+        for (int pass = 0; pass < 4; pass++) {
+            int shift = pass * 8, base = pass * 256;
+            if (counts[base + (keys[0] >>> shift & 0xFF)] == n) continue;
+
+            for (int d = base, total = 0; d < base + 256; d++) {
+                int count = counts[d];
+                counts[d] = total;
+                total += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int q = order[i];
+                scratch[counts[base + (keys[q] >>> shift & 0xFF)]++] = q;
+            }
+
+            int[] swap = order;
+            order = scratch;
+            scratch = swap;
+        }
+    }
+
+    /** Puts the quads in drawing order and splits them into runs. Quads already in order are drawn from where they
+     * were queued, not copied. Layers alone don't start a run, since the batch only has to flush when the texture or
+     * blending changes. */
+    private void gather() {
+        runs.clear();
+        sorted.clear();
+        drawn = inOrder ? vertices : sorted;
+        float[] from = vertices.items, to = inOrder ? null : sorted.ensureCapacity(quads * QUAD);
+
+        int last = -1;
+        for (int i = 0; i < quads; i++) {
+            int q = inOrder ? i : order[i];
+            if (!inOrder) System.arraycopy(from, q * QUAD, to, i * QUAD, QUAD);
+
+            int key = keys[q] & 0xFFFFFF;
+            if (key != last) {
+                runs.add(i * QUAD);
+                runs.add(key);
+                last = key;
+            }
+        }
+        if (!inOrder) sorted.size = quads * QUAD;
+        drawCalls = runs.size / 2;
+    }
+
+    /** Queues the keys of quads just written to the vertices.
+     * @param texture Texture of the quads
+     * @param count How many quads */
+    private void queue(Texture texture, int count) {
+        if (quads + count > keys.length) keys = Arrays.copyOf(keys, Math.max(keys.length * 2, quads + count));
+
+        int key = layer << 24 | blend() << 16 | texture(texture);
+        for (int i = 0; i < count; i++) keys[quads++] = key;
+    }
+
+    /** @return Number of the texture this frame */
+    private int texture(Texture texture) {
+        if (texture == lastTexture) return lastTextureIndex;
+
+        int i = textures.indexOf(texture, true);
+        if (i < 0) {
+            if (textures.size > 0xFFFF) throw new GdxRuntimeException("Too many textures queued at once");
+            i = textures.size;
+            textures.add(texture);
+        }
+        lastTexture = texture;
+        lastTextureIndex = i;
+        return i;
+    }
+
+    /** @return Number of the current blend state this frame */
+    private int blend() {
+        if (blendIndex >= 0) return blendIndex;
+
+        for (int i = 0; i < blends.size; i += BLEND) {
+            if (blends.get(i) == blendSrc && blends.get(i + 1) == blendDst && blends.get(i + 2) == blendSrcAlpha
+                    && blends.get(i + 3) == blendDstAlpha && blends.get(i + 4) == (blending ? 1 : 0))
+                return blendIndex = i / BLEND;
+        }
+
+        if (blends.size / BLEND > 0xFF) throw new GdxRuntimeException("Too many blend states queued at once");
+        blendIndex = blends.size / BLEND;
+        blends.add(blendSrc);
+        blends.add(blendDst);
+        blends.add(blendSrcAlpha);
+        blends.add(blendDstAlpha);
+        blends.add(blending ? 1 : 0);
+        return blendIndex;
+    }
+
+    /** Queues a quad, corners in the same order as a sprite batch. */
+    private void quad(Texture texture, float x1, float y1, float u1, float v1, float x2, float y2, float u2, float v2,
+                      float x3, float y3, float u3, float v3, float x4, float y4, float u4, float v4) {
+        float[] v = vertices.ensureCapacity(QUAD);
+        int i = vertices.size;
+        float c = packedColor;
+
+        v[i] = x1; v[i + 1] = y1; v[i + 2] = c; v[i + 3] = u1; v[i + 4] = v1;
+        v[i + 5] = x2; v[i + 6] = y2; v[i + 7] = c; v[i + 8] = u2; v[i + 9] = v2;
+        v[i + 10] = x3; v[i + 11] = y3; v[i + 12] = c; v[i + 13] = u3; v[i + 14] = v3;
+        v[i + 15] = x4; v[i + 16] = y4; v[i + 17] = c; v[i + 18] = u4; v[i + 19] = v4;
+        vertices.size += QUAD;
+        queue(texture, 1);
+    }
+
+    /** Writes down an upright quad. */
+    private void rect(Texture texture, float x, float y, float x2, float y2, float u, float v, float u2, float v2) {
+        quad(texture, x, y, u, v, x, y2, u, v2, x2, y2, u2, v2, x2, y, u2, v);
+    }
+
+    /** Works out the corners of a scaled and rotated quad into {@link #corners}, the way a sprite batch does. */
+    private void corners(float x, float y, float originX, float originY, float width, float height, float scaleX,
+                         float scaleY, float rotation) {
+        float worldOriginX = x + originX, worldOriginY = y + originY;
+        float fx = -originX * scaleX, fy = -originY * scaleY;
+        float fx2 = (width - originX) * scaleX, fy2 = (height - originY) * scaleY;
+
+        float x1 = fx, y1 = fy, x2 = fx, y2 = fy2, x3 = fx2, y3 = fy2, x4 = fx2, y4 = fy;
+        if (rotation != 0) {
+            float cos = MathUtils.cosDeg(rotation), sin = MathUtils.sinDeg(rotation);
+            x1 = cos * fx - sin * fy;
+            y1 = sin * fx + cos * fy;
+            x2 = cos * fx - sin * fy2;
+            y2 = sin * fx + cos * fy2;
+            x3 = cos * fx2 - sin * fy2;
+            y3 = sin * fx2 + cos * fy2;
+            x4 = x1 + (x3 - x2);
+            y4 = y3 - (y2 - y1);
+        }
+
+        corners[0] = x1 + worldOriginX; corners[1] = y1 + worldOriginY;
+        corners[2] = x2 + worldOriginX; corners[3] = y2 + worldOriginY;
+        corners[4] = x3 + worldOriginX; corners[5] = y3 + worldOriginY;
+        corners[6] = x4 + worldOriginX; corners[7] = y4 + worldOriginY;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {
+        float invWidth = 1f / texture.getWidth(), invHeight = 1f / texture.getHeight();
+        float u = srcX * invWidth, v = (srcY + srcHeight) * invHeight;
+        float u2 = (srcX + srcWidth) * invWidth, v2 = srcY * invHeight;
+        if (flipX) {
+            float tmp = u;
+            u = u2;
+            u2 = tmp;
+        }
+        if (flipY) {
+            float tmp = v;
+            v = v2;
+            v2 = tmp;
+        }
+
+        corners(x, y, originX, originY, width, height, scaleX, scaleY, rotation);
+        float[] c = corners;
+        quad(texture, c[0], c[1], u, v, c[2], c[3], u, v2, c[4], c[5], u2, v2, c[6], c[7], u2, v);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) {
+        draw(texture, x, y, 0, 0, width, height, 1, 1, 0, srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        draw(texture, x, y, srcWidth, srcHeight, srcX, srcY, srcWidth, srcHeight, false, false);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+        rect(texture, x, y, x + width, y + height, u, v, u2, v2);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) { draw(texture, x, y, texture.getWidth(), texture.getHeight()); }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        rect(texture, x, y, x + width, y + height, 0, 1, 1, 0);
+    }
+
+    /** Queues whole quads, like a sprite's. */
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        if (count % QUAD != 0) throw new GdxRuntimeException("Only whole quads can be queued");
+        vertices.addAll(spriteVertices, offset, count);
+        queue(texture, count / QUAD);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        rect(region.getTexture(), x, y, x + width, y + height, region.getU(), region.getV2(), region.getU2(), region.getV());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {
+        float u = region.getU(), v = region.getV2(), u2 = region.getU2(), v2 = region.getV();
+        corners(x, y, originX, originY, width, height, scaleX, scaleY, rotation);
+        float[] c = corners;
+        quad(region.getTexture(), c[0], c[1], u, v, c[2], c[3], u, v2, c[4], c[5], u2, v2, c[6], c[7], u2, v);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {
+        float u = region.getU(), v = region.getV(), u2 = region.getU2(), v2 = region.getV2();
+        corners(x, y, originX, originY, width, height, scaleX, scaleY, rotation);
+        float[] c = corners;
+        if (clockwise) quad(region.getTexture(), c[0], c[1], u2, v2, c[2], c[3], u, v2, c[4], c[5], u, v, c[6], c[7], u2, v);
+        else quad(region.getTexture(), c[0], c[1], u, v, c[2], c[3], u2, v, c[4], c[5], u2, v2, c[6], c[7], u, v2);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 t) {
+        float u = region.getU(), v = region.getV2(), u2 = region.getU2(), v2 = region.getV();
+        quad(region.getTexture(),
+                t.m02, t.m12, u, v,
+                t.m01 * height + t.m02, t.m11 * height + t.m12, u, v2,
+                t.m00 * width + t.m01 * height + t.m02, t.m10 * width + t.m11 * height + t.m12, u2, v2,
+                t.m00 * width + t.m02, t.m10 * width + t.m12, u2, v);
+    }
+
+    /** Nothing to flush, quads are only queued. */
+    @Override
+    public void flush() { }
+
+    @Override
+    public void setColor(Color tint) {
+        color.set(tint);
+        packedColor = color.toFloatBits();
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+        packedColor = color.toFloatBits();
+    }
+
+    @Override
+    public void setColor(float packedColor) {
+        Color.abgr8888ToColor(color, packedColor);
+        this.packedColor = packedColor;
+    }
+
+    @Override
+    public Color getColor() { return color; }
+
+    @Override
+    public float getPackedColor() { return packedColor; }
+
+    @Override
+    public void disableBlending() {
+        if (!blending) return;
+        blending = false;
+        blendIndex = -1;
+    }
+
+    @Override
+    public void enableBlending() {
+        if (blending) return;
+        blending = true;
+        blendIndex = -1;
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) { setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc); }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        if (blendSrc == srcFuncColor && blendDst == dstFuncColor && blendSrcAlpha == srcFuncAlpha
+                && blendDstAlpha == dstFuncAlpha) return;
+        blendSrc = srcFuncColor;
+        blendDst = dstFuncColor;
+        blendSrcAlpha = srcFuncAlpha;
+        blendDstAlpha = dstFuncAlpha;
+        blendIndex = -1;
+    }
+
+    @Override
+    public int getBlendSrcFunc() { return blendSrc; }
+
+    @Override
+    public int getBlendDstFunc() { return blendDst; }
+
+    @Override
+    public int getBlendSrcFuncAlpha() { return blendSrcAlpha; }
+
+    @Override
+    public int getBlendDstFuncAlpha() { return blendDstAlpha; }
+
+    @Override
+    public Matrix4 getProjectionMatrix() { return projection; }
+
+    @Override
+    public Matrix4 getTransformMatrix() { return transform; }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) { this.projection.set(projection); }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) { this.transform.set(transform); }
+
+    @Override
+    public void setShader(ShaderProgram shader) { this.shader = shader; }
+
+    @Override
+    public ShaderProgram getShader() { return shader; }
+
+    @Override
+    public boolean isBlendingEnabled() { return blending; }
+
+    @Override
+    public boolean isDrawing() { return drawing; }
+
+    /** Holds nothing that needs disposing. */
+    @Override
+    public void dispose() { }
+}
@@ -0,0 +1,83 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.DataInput;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.IOException;
+
+import static io.github.lionisaqt.utils.ReplayRecorder.*;
+
+/** Plays back input from a replay file, one tick at a time, in place of the player. See {@link ReplayRecorder} for
+ * what's in the file. Once it runs out, nothing more is held and the replay is finished. */
+public class ReplayReader implements InputSource {
+    public final long seed;         // Seed the run was started from, so it plays out the same way
+    public int ticks;               // Ticks played back so far
+
+    private final DataInput in;
+    private final Command last = new Command();    // What was last asked for
+    private int repeats;                            // Ticks left that ask for the same again
+    private boolean finished;
+
+    /** Opens a replay file.
+     * @param file The file, made by a {@link ReplayRecorder} */
+    public ReplayReader(FileHandle file) {
+        in = new DataInput(file.read(4096));
+        try {
+            if (in.readInt() != MAGIC) throw new GdxRuntimeException(file + " isn't a replay");
+            int version = in.readByte();
+            if (version != VERSION) throw new GdxRuntimeException(file + " is replay version " + version + ", not " + VERSION);
+            seed = in.readLong();
+        } catch (IOException e) {
+            StreamUtils.closeQuietly(in);
+            throw new GdxRuntimeException("Couldn't read replay " + file, e);
+        }
+    }
+
+    @Override
+    public void sample(Command command) {
+        if (finished) {
+            command.clear();
+            return;
+        }
+
+        try {
+            if (repeats == 0) read();
+            else repeats--;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read replay", e);
+        }
+
+        if (finished) command.clear();
+        else {
+            command.set(last);
+            ticks++;
+        }
+    }
+
+    /** Reads the next entry: either a run of repeats, of which this tick is the first, or what changed. */
+    private void read() throws IOException {
+        int changed = in.read();
+        if (changed < 0) {
+            finished = true;
+            StreamUtils.closeQuietly(in);
+            return;
+        }
+
+        if (changed == 0) {
+            repeats = in.readInt(true) - 1;
+            return;
+        }
+
+        if ((changed & MOVE_X) != 0) last.moveX += in.readInt(false);
+        if ((changed & MOVE_Y) != 0) last.moveY += in.readInt(false);
+        if ((changed & BUTTONS) != 0) last.buttons ^= in.readInt(true);
+    }
+
+    @Override
+    public boolean isFinished() { return finished; }
+
+    @Override
+    public void dispose() { StreamUtils.closeQuietly(in); }
+}
@@ -0,0 +1,89 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.DataOutput;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+
+/** Passes input through from another source, writing every tick of it to a replay file as it goes. The file holds
+ * the run's seed, then one entry per change of input: a byte saying which parts changed, followed by how much each
+ * changed as a varint. Ticks where nothing changes are folded into a single run of repeats. */
+public class ReplayRecorder implements InputSource {
+    static final int MAGIC = 0x4A535250;    // "JSRP"
+    static final int VERSION = 1;
+
+    /* Which parts of a command changed, one bit each. No bits means a run of repeats */
+    static final int MOVE_X = 1, MOVE_Y = 2, BUTTONS = 4;
+
+    private final InputSource source;
+    private final DataOutput out;
+    private final Command last = new Command();    // What the file says was last asked for
+    private int repeats;                            // Ticks since then that asked for the same
+
+    /** Starts a replay file.
+     * @param source Where the input really comes from
+     * @param file File to write, replaced if it's there
+     * @param seed Seed the run was started from */
+    public ReplayRecorder(InputSource source, FileHandle file, long seed) {
+        this.source = source;
+        out = new DataOutput(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't start replay " + file, e);
+        }
+    }
+
+    @Override
+    public void sample(Command command) {
+        source.sample(command);
+
+        if (command.same(last)) {
+            repeats++;
+            return;
+        }
+
+        try {
+            writeRepeats();
+
+            int changed = 0;
+            if (command.moveX != last.moveX) changed |= MOVE_X;
+            if (command.moveY != last.moveY) changed |= MOVE_Y;
+            if (command.buttons != last.buttons) changed |= BUTTONS;
+            out.writeByte(changed);
+
+            if ((changed & MOVE_X) != 0) out.writeInt(command.moveX - last.moveX, false);
+            if ((changed & MOVE_Y) != 0) out.writeInt(command.moveY - last.moveY, false);
+            if ((changed & BUTTONS) != 0) out.writeInt((command.buttons ^ last.buttons) & 0xFF, true);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write replay", e);
+        }
+        last.set(command);
+    }
+
+    /** Writes out the ticks that repeated the last command, if any. */
+    private void writeRepeats() throws IOException {
+        if (repeats == 0) return;
+        out.writeByte(0);
+        out.writeInt(repeats, true);
+        repeats = 0;
+    }
+
+    @Override
+    public boolean isFinished() { return source.isFinished(); }
+
+    /** Finishes the file. */
+    @Override
+    public void dispose() {
+        try {
+            writeRepeats();
+            out.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't finish replay", e);
+        }
+        source.dispose();
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/** A thread that steps a simulation at a fixed rate of real time, apart from the rendering thread. Each step is told
+ * how much real time passed since the last one, so it can keep its own fixed ticks. The thread waits without
+ * stepping while paused, and whatever it throws is thrown again on the rendering thread by {@link #check()}. */
+public class SimulationThread {
+    /** One step of the simulation, run on the simulation thread. */
+    public interface Step {
+        /** @param deltaTime Real time since the last step, in seconds */
+        void step(float deltaTime);
+    }
+
+    private static final float MAX_STEP = 0.25f;    // Longest step, so a stall doesn't come back as a burst of ticks
+
+    private final Step step;
+    private final long period;      // Nanoseconds between steps
+    private final Thread thread;
+    private final Object lock = new Object();
+
+    private volatile boolean paused = true, stopped;
+    private volatile Throwable failure;
+
+    /** Constructs the thread, paused until {@link #setPaused(boolean)} lets it go.
+     * @param step The simulation's step
+     * @param stepTime Real time between steps, in seconds */
+    public SimulationThread(Step step, float stepTime) {
+        this.step = step;
+        period = (long)(stepTime * 1000000000L);
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() { loop(); }
+        }, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Steps the simulation on time until stopped or it throws. */
+    private void loop() {
+        try {
+            long last = TimeUtils.nanoTime();
+            while (!stopped) {
+                if (paused) {
+                    synchronized (lock) {
+                        while (paused && !stopped) lock.wait();
+                    }
+                    last = TimeUtils.nanoTime();   // Time spent paused doesn't count
+                    continue;
+                }
+
+                long now = TimeUtils.nanoTime();
+                step.step(Math.min(MAX_STEP, (now - last) / 1000000000f));
+                last = now;
+
+                long wait = now + period - TimeUtils.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(this, wait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    /** Stops or restarts stepping. Time spent paused is skipped, not caught up on.
+     * @param paused Whether to stop stepping */
+    public void setPaused(boolean paused) {
+        if (this.paused == paused) return;
+        synchronized (lock) {
+            this.paused = paused;
+            lock.notifyAll();
+        }
+    }
+
+    /** Throws whatever the simulation threw, if anything. Call on the rendering thread every frame. */
+    public void check() {
+        if (failure != null) throw new GdxRuntimeException("The simulation failed", failure);
+    }
+
+    /** @return Whether this is being called from the simulation thread */
+    public boolean isCurrent() { return Thread.currentThread() == thread; }
+
+    /** Stops the thread and waits for its last step to finish, so the simulation can be disposed. */
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+            lock.notifyAll();
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
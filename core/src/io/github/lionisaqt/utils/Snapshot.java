@@ -0,0 +1,15 @@
+package io.github.lionisaqt.utils;
+
+/** Everything needed to draw one tick of the game, written by the simulation thread and then only read by the
+ * rendering thread, which never touches the simulation itself. Handed over through a {@link TripleBuffer}. */
+public class Snapshot {
+    public final RenderQueue sprites = new RenderQueue();   // Background, entities, bullets and particles, sorted
+    public final LightFrame lights;                         // Lights to cast, most important first
+    public float cameraX, cameraY;                          // Where the shaken camera is
+    public float upX, upY;                                  // Which way is up for the shaken camera
+    public boolean written;                                 // Whether anything has been written yet
+
+    /** Constructs an empty snapshot.
+     * @param maxLights Most lights cast at once */
+    public Snapshot(int maxLights) { lights = new LightFrame(maxLights); }
+}
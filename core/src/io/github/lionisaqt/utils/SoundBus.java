@@ -0,0 +1,263 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Plays every gameplay sound. Sounds asked for during a frame are only queued; at the end of the frame, every
+ * request for the same sound is merged into one louder voice. Each sound has its own cap on voices, and so does the
+ * whole bus: when either is full, the oldest voice of the lowest priority is stopped to make room, as long as it
+ * doesn't outrank the new one. Sounds can be asked for from another thread once the bus is handed off, see
+ * {@link #handOff()}. */
+public class SoundBus {
+    private static final float STACK = 0.25f;   // How much each merged request adds on top of the loudest one
+
+    /** A sound the bus can play, with its own priority and cap on voices. */
+    public static class Cue {
+        public final Sound sound;
+        public final int priority;      // Which voices are kept when there are too many, higher first
+        public final int maxVoices;     // Most voices of this sound playing at once
+        public final float length;      // Seconds a voice is counted as playing for
+
+        int voices;                     // Voices of this sound playing right now
+        private int requests;           // Requests queued this frame
+        private float loudest, total;   // Volume of the loudest request this frame, and of every request
+
+        /** Constructs a cue. Use {@link SoundBus#add(Sound, int, int, float)} instead. */
+        Cue(Sound sound, int priority, int maxVoices, float length) {
+            this.sound = sound;
+            this.priority = priority;
+            this.maxVoices = maxVoices;
+            this.length = length;
+        }
+
+        /** @return How loud the merged voice should be, from 0 to 1 */
+        private float volume() { return Math.min(1, loudest + (total - loudest) * STACK); }
+    }
+
+    /* Sounds, lowest priority first */
+    public Cue
+            shoot,                          // Any gun firing
+            hit,                            // Friendly bullet hitting an enemy
+            hurt,                           // Enemy bullet hitting the player
+            explode1, explode2,             // Something blowing up
+            kill;                           // Enemy killed
+
+    private final Array<Cue> queued = new Array<>(false, 8);   // Cues with requests this frame, played by priority
+    private final Comparator<Cue> byPriority = new Comparator<Cue>() {
+        @Override
+        public int compare(Cue a, Cue b) { return b.priority - a.priority; }
+    };
+
+    /* Requests from the simulation thread, passed on without locks: it only moves the tail, the updating thread
+     * only moves the head. Requests past the capacity are dropped */
+    private static final int INBOX = 256;
+    private final Cue[] inboxCue = new Cue[INBOX];
+    private final float[] inboxVolume = new float[INBOX];
+    private final AtomicInteger inboxHead = new AtomicInteger(), inboxTail = new AtomicInteger();
+    private boolean handedOff;  // Whether requests come through the inbox
+
+    /* Voice columns, one slot per voice playing */
+    private final Cue[] voiceCue;
+    private final long[] voiceId;
+    private final float[] voiceAge;
+    private int voices;         // Voices playing right now
+
+    public final int maxVoices; // Most voices playing at once, over every sound
+
+    /* Counted since the bus was made */
+    public int requested;       // Requests to play a sound
+    public int merged;          // Requests folded into another one the same frame
+    public int played;          // Voices started
+    public int stolen;          // Voices stopped early to make room
+    public int dropped;         // Voices not started, since everything playing outranked them
+
+    /** Constructs an empty sound bus.
+     * @param maxVoices Most voices playing at once, see {@link #budget(ApplicationType)} */
+    public SoundBus(int maxVoices) {
+        this.maxVoices = maxVoices;
+        voiceCue = new Cue[maxVoices];
+        voiceId = new long[maxVoices];
+        voiceAge = new float[maxVoices];
+    }
+
+    /** Most voices worth playing at once on each platform. Phones mix on a much smaller budget.
+     * @param type The platform
+     * @return How many voices to play */
+    public static int budget(ApplicationType type) {
+        switch (type) {
+            case Android:
+            case iOS:
+                return 8;
+            default:
+                return 16;
+        }
+    }
+
+    /** Helper function that makes a cue for every gameplay sound. Gunfire is stolen from first, since there's
+     * always more of it coming; kills are kept the longest.
+     * @param assets Assets holding the loaded sounds */
+    public void loadSounds(Assets assets) {
+        shoot = add(assets.manager.get(assets.shoot), 0, 4, 2);
+        hit = add(assets.manager.get(assets.hit1), 1, 4, 0.25f);
+        hurt = add(assets.manager.get(assets.hurt1), 2, 2, 1);
+        explode1 = add(assets.manager.get(assets.death1), 2, 3, 1.7f);
+        explode2 = add(assets.manager.get(assets.death2), 2, 3, 1.6f);
+        kill = add(assets.manager.get(assets.kill1), 3, 3, 1);
+    }
+
+    /** Adds a sound the bus can play.
+     * @param sound The sound
+     * @param priority Which voices are kept when there are too many, higher first
+     * @param maxVoices Most voices of this sound playing at once
+     * @param length Seconds a voice is counted as playing for, about as long as the sound
+     * @return The cue to play the sound with */
+    public Cue add(Sound sound, int priority, int maxVoices, float length) {
+        return new Cue(sound, priority, maxVoices, length);
+    }
+
+    /** From now on, sounds are asked for on one thread and the bus is updated on another. Call before either
+     * thread starts using the bus. */
+    public void handOff() { handedOff = true; }
+
+    /** Queues a sound to play at the end of the frame, merged with any other requests for it.
+     * @param cue The sound
+     * @param volume How loud this request is, from 0 to 1 */
+    public void play(Cue cue, float volume) {
+        if (handedOff) post(cue, volume);
+        else request(cue, volume);
+    }
+
+    /** Passes a request on to the updating thread.
+     * @param cue The sound
+     * @param volume How loud this request is */
+    private void post(Cue cue, float volume) {
+        int tail = inboxTail.get();
+        if (tail - inboxHead.get() == INBOX) return;
+
+        int i = tail & (INBOX - 1);
+        inboxCue[i] = cue;
+        inboxVolume[i] = volume;
+        inboxTail.lazySet(tail + 1);   // Publishes the slot
+    }
+
+    /** Queues every request passed on since the last update. */
+    private void drain() {
+        int head = inboxHead.get(), tail = inboxTail.get();
+        for (; head != tail; head++) {
+            int i = head & (INBOX - 1);
+            request(inboxCue[i], inboxVolume[i]);
+            inboxCue[i] = null;
+        }
+        inboxHead.lazySet(head);
+    }
+
+    /** Queues a request, merged with any other for the same sound.
+     * @param cue The sound
+     * @param volume How loud this request is */
+    private void request(Cue cue, float volume) {
+        requested++;
+        if (cue.requests++ == 0) {
+            cue.loudest = cue.total = volume;
+            queued.add(cue);
+        } else {
+            merged++;
+            cue.loudest = Math.max(cue.loudest, volume);
+            cue.total += volume;
+        }
+    }
+
+    /** Queues a sound to play at full volume at the end of the frame.
+     * @param cue The sound */
+    public void play(Cue cue) { play(cue, 1); }
+
+    /** Ages every voice, then plays what was queued this frame, highest priority first. Call once per frame.
+     * @param deltaTime Time since the last update */
+    public void update(float deltaTime) {
+        if (handedOff) drain();
+
+        for (int i = voices - 1; i >= 0; i--) {
+            voiceAge[i] += deltaTime;
+            if (voiceAge[i] >= voiceCue[i].length) remove(i);
+        }
+
+        if (queued.size > 1) queued.sort(byPriority);
+        for (int i = 0; i < queued.size; i++) {
+            Cue cue = queued.get(i);
+            start(cue, cue.volume());
+            cue.requests = 0;
+        }
+        queued.clear();
+    }
+
+    /** Starts a voice, making room for it first if the sound or the bus is full.
+     * @param cue The sound
+     * @param volume How loud it plays */
+    private void start(Cue cue, float volume) {
+        int victim = -1;
+        if (cue.voices >= cue.maxVoices) victim = oldest(cue, cue.priority);
+        else if (voices >= maxVoices) victim = oldest(null, cue.priority);
+
+        if (cue.voices >= cue.maxVoices || voices >= maxVoices) {
+            if (victim < 0) {
+                dropped++;
+                return;
+            }
+            voiceCue[victim].sound.stop(voiceId[victim]);
+            remove(victim);
+            stolen++;
+        }
+
+        int i = voices++;
+        voiceCue[i] = cue;
+        voiceId[i] = cue.sound.play(volume);
+        voiceAge[i] = 0;
+        cue.voices++;
+        played++;
+    }
+
+    /** Finds the voice to steal: the lowest priority, then the oldest among it.
+     * @param cue Only look at voices of this sound, or every voice if null
+     * @param priority Voices of a higher priority than this are never stolen
+     * @return Index of the voice, or -1 if there's none to steal */
+    private int oldest(Cue cue, int priority) {
+        int found = -1;
+        for (int i = 0; i < voices; i++) {
+            Cue c = voiceCue[i];
+            if (cue != null && c != cue) continue;
+            if (c.priority > priority) continue;
+
+            if (found < 0 || c.priority < voiceCue[found].priority
+                    || c.priority == voiceCue[found].priority && voiceAge[i] > voiceAge[found])
+                found = i;
+        }
+        return found;
+    }
+
+    /** Forgets a voice by moving the last voice into its slot. The sound itself is left to finish.
+     * @param i Index of the voice */
+    private void remove(int i) {
+        voiceCue[i].voices--;
+        int last = --voices;
+        voiceCue[i] = voiceCue[last];
+        voiceId[i] = voiceId[last];
+        voiceAge[i] = voiceAge[last];
+        voiceCue[last] = null;
+    }
+
+    /** @return Voices playing right now */
+    public int size() { return voices; }
+
+    /** Stops every voice and drops anything queued. */
+    public void stopAll() {
+        for (int i = voices - 1; i >= 0; i--) {
+            voiceCue[i].sound.stop(voiceId[i]);
+            remove(i);
+        }
+        for (int i = 0; i < queued.size; i++) queued.get(i).requests = 0;
+        queued.clear();
+    }
+}
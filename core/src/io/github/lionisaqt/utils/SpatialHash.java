@@ -0,0 +1,216 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.Array;
+
+/** Uniform grid over the playfield for finding what's near a point. Items are added every tick and sorted
+ * into cells in one pass; anything off the playfield goes in the nearest edge cell. Queries write into an
+ * array the caller keeps, so nothing is allocated once the grid has grown to fit.
+ * @param <T> What's stored in the grid */
+public class SpatialHash<T> {
+    private final float cellSize;
+    private final int columns, rows;
+
+    /* Items as they're added */
+    private Object[] items;
+    private float[] itemX, itemY;
+    private int[] itemCell;
+    public int size;    // Number of items in the grid
+
+    /* Items sorted by cell, where cell c holds sorted[cellStart[c]] up to sorted[cellStart[c + 1]] */
+    private final int[] cellStart;
+    private Object[] sorted;
+    private float[] sortedX, sortedY;
+
+    /* Best candidates so far while finding the nearest items */
+    private int[] nearestIndex;
+    private float[] nearestDistance;
+
+    /** Constructs an empty grid.
+     * @param width Width of the playfield
+     * @param height Height of the playfield
+     * @param cellSize Width and height of each cell. Works best around the size of the usual query radius. */
+    public SpatialHash(float width, float height, float cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int)Math.ceil(width / cellSize));
+        rows = Math.max(1, (int)Math.ceil(height / cellSize));
+        cellStart = new int[columns * rows + 1];
+
+        items = new Object[64];
+        itemX = new float[64];
+        itemY = new float[64];
+        itemCell = new int[64];
+        sorted = new Object[64];
+        sortedX = new float[64];
+        sortedY = new float[64];
+
+        nearestIndex = new int[8];
+        nearestDistance = new float[8];
+    }
+
+    /** Empties the grid, ready for this tick's items. */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i] = null;
+            sorted[i] = null;
+        }
+        size = 0;
+    }
+
+    /** Adds an item. It can't be found until the grid is built.
+     * @param item The item
+     * @param x Where the item is on the x axis
+     * @param y Where the item is on the y axis */
+    public void add(T item, float x, float y) {
+        if (size == items.length) grow();
+        items[size] = item;
+        itemX[size] = x;
+        itemY[size] = y;
+        itemCell[size] = column(x) + row(y) * columns;
+        size++;
+    }
+
+    /** Sorts every added item into its cell. Call after adding and before finding. */
+    public void build() {
+        for (int c = 0; c < cellStart.length; c++) cellStart[c] = 0;
+
+        /* Count each cell, then turn counts into where each cell ends */
+        for (int i = 0; i < size; i++) cellStart[itemCell[i] + 1]++;
+        for (int c = 1; c < cellStart.length; c++) cellStart[c] += cellStart[c - 1];
+
+        /* Place each item, moving its cell's start along; afterwards every start is one cell late */
+        for (int i = 0; i < size; i++) {
+            int slot = cellStart[itemCell[i]]++;
+            sorted[slot] = items[i];
+            sortedX[slot] = itemX[i];
+            sortedY[slot] = itemY[i];
+        }
+        for (int c = cellStart.length - 1; c > 0; c--) cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+    }
+
+    /** Finds every item within a distance of a point.
+     * @param x Center of the search on the x axis
+     * @param y Center of the search on the y axis
+     * @param radius How far to look
+     * @param out Cleared, then filled with what was found
+     * @return How many items were found */
+    @SuppressWarnings("unchecked")
+    public int findInRadius(float x, float y, float radius, Array<T> out) {
+        out.clear();
+        float radius2 = radius * radius;
+
+        int left = column(x - radius), right = column(x + radius);
+        int bottom = row(y - radius), top = row(y + radius);
+        for (int r = bottom; r <= top; r++) {
+            for (int c = left; c <= right; c++) {
+                int cell = c + r * columns;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    float dx = sortedX[i] - x, dy = sortedY[i] - y;
+                    if (dx * dx + dy * dy <= radius2) out.add((T)sorted[i]);
+                }
+            }
+        }
+        return out.size;
+    }
+
+    /** Finds the items closest to a point, searching outward a ring of cells at a time.
+     * @param x Center of the search on the x axis
+     * @param y Center of the search on the y axis
+     * @param k Most items to find
+     * @param out Cleared, then filled with what was found, closest first
+     * @return How many items were found, which is less than k only if the grid has fewer items */
+    @SuppressWarnings("unchecked")
+    public int findNearest(float x, float y, int k, Array<T> out) {
+        out.clear();
+        if (k <= 0) return 0;
+        if (k > nearestIndex.length) {
+            nearestIndex = new int[k];
+            nearestDistance = new float[k];
+        }
+
+        int found = 0;
+        int column = column(x), row = row(y);
+        int rings = Math.max(columns, rows);
+        for (int ring = 0; ring <= rings; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+
+                /* Only the outline of the ring, the inside was searched already */
+                int step = r == row - ring || r == row + ring ? 1 : Math.max(1, ring * 2);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (c < 0 || c >= columns) continue;
+
+                    int cell = c + r * columns;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        float dx = sortedX[i] - x, dy = sortedY[i] - y;
+                        found = offer(i, dx * dx + dy * dy, found, k);
+                    }
+                }
+            }
+
+            /* Anything in a further ring is at least this far away */
+            float reach = ring * cellSize;
+            if (found == k && nearestDistance[k - 1] <= reach * reach) break;
+        }
+
+        for (int i = 0; i < found; i++) out.add((T)sorted[nearestIndex[i]]);
+        return found;
+    }
+
+    /** Keeps a candidate if it's one of the k closest so far, in order of distance.
+     * @param index Sorted index of the candidate
+     * @param distance2 Squared distance to the candidate
+     * @param found How many candidates are kept
+     * @param k Most candidates to keep
+     * @return How many candidates are kept now */
+    private int offer(int index, float distance2, int found, int k) {
+        if (found == k && distance2 >= nearestDistance[k - 1]) return found;
+
+        int i = found < k ? found++ : k - 1;
+        while (i > 0 && nearestDistance[i - 1] > distance2) {
+            nearestDistance[i] = nearestDistance[i - 1];
+            nearestIndex[i] = nearestIndex[i - 1];
+            i--;
+        }
+        nearestDistance[i] = distance2;
+        nearestIndex[i] = index;
+        return found;
+    }
+
+    /** @return The column holding an x position, clamped to the grid */
+    private int column(float x) {
+        int c = (int)(x / cellSize);
+        return x < 0 ? 0 : c >= columns ? columns - 1 : c;
+    }
+
+    /** @return The row holding a y position, clamped to the grid */
+    private int row(float y) {
+        int r = (int)(y / cellSize);
+        return y < 0 ? 0 : r >= rows ? rows - 1 : r;
+    }
+
+    /** Doubles the room for items. */
+    private void grow() {
+        int capacity = items.length * 2;
+
+        Object[] o = new Object[capacity];
+        System.arraycopy(items, 0, o, 0, size);
+        items = o;
+        o = new Object[capacity];
+        System.arraycopy(sorted, 0, o, 0, size);
+        sorted = o;
+
+        float[] f = new float[capacity];
+        System.arraycopy(itemX, 0, f, 0, size);
+        itemX = f;
+        f = new float[capacity];
+        System.arraycopy(itemY, 0, f, 0, size);
+        itemY = f;
+        sortedX = new float[capacity];
+        sortedY = new float[capacity];
+
+        int[] n = new int[capacity];
+        System.arraycopy(itemCell, 0, n, 0, size);
+        itemCell = n;
+    }
+}
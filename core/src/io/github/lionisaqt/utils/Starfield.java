@@ -0,0 +1,106 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+
+/** Background stars drifting down the screen in parallax layers, drawn as additive sprites. Nothing is simulated:
+ * every star's position is worked out from the time that has passed, and each time a star wraps back to the top it
+ * comes in at a new column picked from a hash of the star and how many times it has wrapped. */
+public class Starfield {
+    private final TextureRegion texture;
+    private final float width, height;
+    private final RandomXS128 random;   // Lays out new layers
+
+    /* Star columns, one slot per star */
+    private float[] startY, speed, size, tint;
+    public int count;   // Number of stars, over every layer
+
+    private double time;    // Seconds the stars have been drifting
+
+    /** Constructs an empty starfield.
+     * @param texture Soft dot every star is drawn with
+     * @param width Width of the playfield
+     * @param height Height of the playfield
+     * @param random Stream new layers are laid out from */
+    public Starfield(TextureRegion texture, float width, float height, RandomXS128 random) {
+        this.texture = texture;
+        this.width = width;
+        this.height = height;
+        this.random = random;
+
+        startY = new float[0];
+        speed = new float[0];
+        size = new float[0];
+        tint = new float[0];
+    }
+
+    /** Adds a layer of stars. Further layers should be denser, smaller, dimmer and slower.
+     * @param density How many stars are in the layer
+     * @param speed How fast the layer drifts down, give or take a quarter per star
+     * @param size Width and height of each star
+     * @param alpha How bright each star is, from 0 to 1 */
+    public void addLayer(int density, float speed, float size, float alpha) {
+        int first = count;
+        resize(count + density);
+
+        for (int i = first; i < count; i++) {
+            startY[i] = random.nextFloat() * height;
+            this.speed[i] = speed * Randoms.range(random, 0.75f, 1.25f);
+            this.size[i] = size;
+            tint[i] = Color.toFloatBits(random.nextFloat(), random.nextFloat(), random.nextFloat(), alpha);
+        }
+    }
+
+    /** Lets the stars drift.
+     * @param deltaTime Time since the last update */
+    public void update(float deltaTime) { time += deltaTime; }
+
+    /** Draws every star, blending additively so overlapping stars brighten each other.
+     * @param batch The batch used to draw, already begun */
+    public void draw(Batch batch) {
+        float color = batch.getPackedColor();
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+
+        for (int i = 0; i < count; i++) {
+            /* Stars wrap over the height plus their own size, so they leave and enter fully offscreen */
+            float span = height + size[i] * 2;
+            double fallen = (startY[i] + size[i] * 2 - speed[i] * time) / span;
+            double cycle = Math.floor(fallen);
+            float y = (float)((fallen - cycle) * span) - size[i] * 2;
+            float x = column(i, (int)cycle) * width - size[i] / 2;
+
+            batch.setColor(tint[i]);
+            batch.draw(texture, x, y, size[i], size[i]);
+        }
+
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setColor(color);
+    }
+
+    /** @return Where a star is across the screen during one trip down it, from 0 to 1 */
+    private static float column(int star, int cycle) {
+        int h = star * 0x9E3779B1 ^ cycle * 0x85EBCA6B;
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        h ^= h >>> 15;
+        return (h & 0xFFFFFF) / (float)0x1000000;
+    }
+
+    /** Makes room for more stars, keeping the ones there are. */
+    private void resize(int capacity) {
+        startY = resize(startY, capacity);
+        speed = resize(speed, capacity);
+        size = resize(size, capacity);
+        tint = resize(tint, capacity);
+        count = capacity;
+    }
+
+    private static float[] resize(float[] array, int capacity) {
+        float[] resized = new float[capacity];
+        System.arraycopy(array, 0, resized, 0, Math.min(array.length, capacity));
+        return resized;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** When each phase of startup finished, in milliseconds since the game was constructed. Each phase is -1 until it
+ * happens, and is logged when it does. */
+public class StartupTimings {
+    private final long start = TimeUtils.nanoTime();
+
+    public long created = -1;       // The backend called create
+    public long firstFrame = -1;    // The first frame was drawn, whatever screen it was
+    public long menuReady = -1;     // Menu assets were loaded and the main menu was shown
+    public long gameReady = -1;     // Every gameplay asset was loaded
+
+    /** Times a phase and logs it.
+     * @param phase Name of the phase, for the log
+     * @return Milliseconds since the game was constructed */
+    public long mark(String phase) {
+        long millis = TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start));
+        Gdx.app.log("Startup", phase + " at " + millis + "ms");
+        return millis;
+    }
+}
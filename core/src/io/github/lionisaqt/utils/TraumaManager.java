@@ -3,10 +3,9 @@ package io.github.lionisaqt.utils;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.Random;
-
 import static io.github.lionisaqt.JuicyShmup.PPM;
 
 /** Manages camera shake in a semi-realistic manner.
@@ -15,6 +14,9 @@ public class TraumaManager {
     /* Need a camera to shake */
     private final OrthographicCamera camera;
 
+    /* Picks which way the camera shakes */
+    private final RandomXS128 random;
+
     /* Translational and angular offsets */
     private float trauma, maxAngle, angle, maxOffset, lastTrauma;
 
@@ -22,9 +24,11 @@ public class TraumaManager {
     private Vector2 offset;
 
     /** Constructs trauma manager.
-     * @param camera The camera that will be affected */
-    public TraumaManager(OrthographicCamera camera) {
+     * @param camera The camera that will be affected
+     * @param random Stream the shake is drawn from */
+    public TraumaManager(OrthographicCamera camera, RandomXS128 random) {
         this.camera = camera;
+        this.random = random;
         trauma = 0;
         maxAngle = 0f * PPM; // Swap to 32f for rotational shake
         angle = 0;
@@ -38,13 +42,13 @@ public class TraumaManager {
     public final void manageShake(float deltaTime, float timeScale) {
         if (trauma > 0) {
             /* Calculates rotational shake */
-            angle = maxAngle * shakeAmount() * (new Random().nextFloat() * 2 - 1);
+            angle = maxAngle * shakeAmount() * (random.nextFloat() * 2 - 1);
             camera.rotate((-(float)Math.atan2(camera.up.x, camera.up.y) * MathUtils.radiansToDegrees) + angle);
 
             /* Calculates translational shake */
             offset.set(
-                    maxOffset * shakeAmount() * (new Random().nextFloat() * 2 - 1),
-                    maxOffset * shakeAmount() * (new Random().nextFloat() * 2 - 1)
+                    maxOffset * shakeAmount() * (random.nextFloat() * 2 - 1),
+                    maxOffset * shakeAmount() * (random.nextFloat() * 2 - 1)
             );
             camera.position.set(
                     camera.viewportWidth / 2 + offset.x,
@@ -0,0 +1,40 @@
+package io.github.lionisaqt.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Hands the newest of a stream of values from one thread to another without locks. There are three slots: one the
+ * writer fills, one the reader reads, and one in between holding the newest that was published. Publishing and
+ * taking are each a single atomic swap with the one in between, so neither thread ever waits; a reader that falls
+ * behind just skips to the newest value, and one that gets ahead keeps the value it has.
+ * @param <T> What's handed over, filled in place and reused */
+public class TripleBuffer<T> {
+    private static final int FRESH = 4;     // Set on the middle index when it was published since it was last taken
+    private static final int INDEX = 3;
+
+    private final Object[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 2;   // The writer's slot
+    private int front = 0;  // The reader's slot
+
+    /** Constructs a triple buffer over three values, the first of them what's read until something is published.
+     * @param a First value
+     * @param b Second value
+     * @param c Third value */
+    public TripleBuffer(T a, T b, T c) { slots = new Object[] { a, b, c }; }
+
+    /** @return The value to fill in before publishing it. Only call on the writing thread. */
+    @SuppressWarnings("unchecked")
+    public T back() { return (T)slots[back]; }
+
+    /** Hands the filled in value to the reader and takes a free one to fill next. Only call on the writing thread. */
+    public void publish() { back = middle.getAndSet(back | FRESH) & INDEX; }
+
+    /** Takes the newest value published, if there's one the reader hasn't had yet. It's the reader's until the next
+     * call. Only call on the reading thread.
+     * @return The newest value */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & INDEX;
+        return (T)slots[front];
+    }
+}
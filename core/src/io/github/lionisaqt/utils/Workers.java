@@ -0,0 +1,143 @@
+package io.github.lionisaqt.utils;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** A few threads kept waiting to split loops with the calling thread. Each loop is cut into one even chunk per
+ * thread, the caller takes the first chunk itself, and {@link #run(Job, int)} only returns once every chunk is done.
+ * Nothing is allocated per loop, so it can be used every tick. */
+public class Workers {
+    /** A loop that can be split into chunks and run on any thread. */
+    public interface Job {
+        /** Runs part of the loop.
+         * @param from First index of the chunk
+         * @param to Index after the last one of the chunk
+         * @param worker Which thread is running it, from 0 (the caller) to size - 1; use it to pick scratch space */
+        void run(int from, int to, int worker);
+    }
+
+    public final int size;      // Threads loops are split over, the caller included
+    public int minimum;         // Loops shorter than this run on the caller alone, not worth waking anyone
+
+    private final Object lock = new Object();
+    private final Thread[] threads;
+
+    /* The loop being run, guarded by the lock */
+    private Job job;
+    private int count;
+    private int generation;     // Goes up by one for every loop, so threads know there's a new one
+    private int pending;        // Threads other than the caller still running their chunk
+    private Throwable failure;  // What a thread threw, thrown again on the caller
+    private boolean disposed;
+
+    /** Starts the threads.
+     * @param size Threads loops are split over, the caller included; see {@link #available()}
+     * @param minimum Loops shorter than this run on the caller alone */
+    public Workers(int size, int minimum) {
+        this.size = Math.max(1, size);
+        this.minimum = minimum;
+
+        threads = new Thread[this.size - 1];
+        for (int i = 0; i < threads.length; i++) {
+            final int worker = i + 1;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() { work(worker); }
+            }, "Worker " + worker);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /** @return How many threads are worth splitting loops over on this device */
+    public static int available() { return Runtime.getRuntime().availableProcessors(); }
+
+    /** Runs a loop split over every thread, and waits for it to finish.
+     * @param job The loop
+     * @param count How many indices the loop covers, from 0 */
+    public void run(Job job, int count) {
+        if (threads.length == 0 || count < minimum) {
+            job.run(0, count, 0);
+            return;
+        }
+
+        synchronized (lock) {
+            this.job = job;
+            this.count = count;
+            pending = threads.length;
+            generation++;
+            lock.notifyAll();
+        }
+
+        Throwable thrown = null;
+        try {
+            chunk(job, count, 0);
+        } catch (Throwable t) {
+            thrown = t;
+        }
+
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            this.job = null;
+            if (thrown == null) thrown = failure;
+            failure = null;
+        }
+
+        if (thrown != null) throw new GdxRuntimeException("A worker failed", thrown);
+    }
+
+    /** Runs one thread's share of a loop. */
+    private void chunk(Job job, int count, int worker) {
+        int from = (int)((long)count * worker / size);
+        int to = (int)((long)count * (worker + 1) / size);
+        if (from < to) job.run(from, to, worker);
+    }
+
+    /** What every thread but the caller does: waits for a loop, runs its chunk, and says so. */
+    private void work(int worker) {
+        int seen = 0;
+        while (true) {
+            Job job;
+            int count;
+            synchronized (lock) {
+                while (generation == seen && !disposed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (disposed) return;
+                seen = generation;
+                job = this.job;
+                count = this.count;
+            }
+
+            Throwable thrown = null;
+            try {
+                chunk(job, count, worker);
+            } catch (Throwable t) {
+                thrown = t;
+            }
+
+            synchronized (lock) {
+                if (thrown != null && failure == null) failure = thrown;
+                if (--pending == 0) lock.notifyAll();
+            }
+        }
+    }
+
+    /** Lets every thread finish. */
+    public void dispose() {
+        synchronized (lock) {
+            disposed = true;
+            lock.notifyAll();
+        }
+    }
+}
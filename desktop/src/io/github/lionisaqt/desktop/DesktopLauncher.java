@@ -2,13 +2,22 @@ package io.github.lionisaqt.desktop;
 
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
 import io.github.lionisaqt.JuicyShmup;
 
+/** Usage: DesktopLauncher [--threaded] [--record file | --replay file] */
 public class DesktopLauncher {
 	public static void main (String[] arg) {
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.width = (int)JuicyShmup.GAME_WIDTH;
 		config.height = (int)JuicyShmup.GAME_HEIGHT;
-		new LwjglApplication(new JuicyShmup(), config);
+
+		JuicyShmup game = new JuicyShmup();
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("--threaded")) game.threaded = true;
+			else if (arg[i].equals("--record") && i + 1 < arg.length) game.record = new FileHandle(arg[++i]);
+			else if (arg[i].equals("--replay") && i + 1 < arg.length) game.replay = new FileHandle(arg[++i]);
+		}
+		new LwjglApplication(game, config);
 	}
 }
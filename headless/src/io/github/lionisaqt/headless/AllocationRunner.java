@@ -0,0 +1,169 @@
+package io.github.lionisaqt.headless;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.actors.Player;
+import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.FrameProbe;
+
+/** Headless game that plays a scripted fight and counts how many bytes each phase of a frame allocates, using the
+ * JVM's per-thread allocation counter. The first frames are let go so pools and arrays can grow to size; after that,
+ * the run fails if any frame allocates more than the budget, or if frames do on average. */
+public class AllocationRunner extends JuicyShmup implements FrameProbe {
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final float FIRE_DELAY = 0.1f;   // Same as the player's
+    private static final int WARM_READS = 200000;   // Readings of the counter before counting, enough to get it compiled
+
+    private final int warmup;       // Frames let go before counting
+    private final int frames;       // Frames counted
+    private final long budget;      // Most bytes any frame may allocate
+    private int frame;              // Frames simulated so far, counted or not
+
+    private final com.sun.management.ThreadMXBean threads;
+    private long thread;            // The game thread, which everything is counted on
+    private long overhead;          // Bytes each reading of the counter allocates by itself
+    private long reads;             // Readings of the counter so far, so a measurement can take off every one in it
+
+    /* Bytes allocated while counting, overall and by phase */
+    private long total, worst;
+    private int worstFrame;
+    private String worstPhase = "between phases";   // Phase that allocated the most on the worst frame
+    private final long[] phaseBytes = new long[PHASES];
+    private final long[] frameStart = new long[PHASES];     // Bytes by phase before the frame being counted
+    private final long[] phaseStart = new long[PHASES];
+    private final long[] phaseReads = new long[PHASES];
+
+    public InGame screen;
+    private float fireTimer;
+
+    /** Constructs an allocation runner.
+     * @param warmup Frames let go before counting
+     * @param frames Frames counted
+     * @param budget Most bytes any frame may allocate */
+    public AllocationRunner(int warmup, int frames, long budget) {
+        super(true);
+        this.warmup = warmup;
+        this.frames = frames;
+        this.budget = budget;
+        random.setSeed(0);
+
+        threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Override
+    public void create() {
+        thread = Thread.currentThread().getId();
+        Headless.installGL();
+        super.create();
+        screen = new InGame(this);
+        setScreen(screen);
+        screen.probe = this;
+        overhead = calibrate();
+    }
+
+    @Override
+    public void render() {
+        if (frame >= warmup + frames) return;
+
+        script();
+        if (frame < warmup) screen.render(DELTA_TIME);
+        else {
+            System.arraycopy(phaseBytes, 0, frameStart, 0, PHASES);
+            long start = reads;
+            long before = allocated();
+            screen.render(DELTA_TIME);
+            long bytes = allocated() - before - measured(start);
+            total += bytes;
+            if (bytes > worst) {
+                worst = bytes;
+                worstFrame = frame - warmup;
+                worstPhase = worstPhase();
+            }
+        }
+
+        if (++frame == warmup + frames) finish();
+    }
+
+    /** @return Name of the phase that allocated the most on the frame just counted, leaving out the whole frame */
+    private String worstPhase() {
+        int most = -1;
+        long mostBytes = 0;
+        for (int i = 0; i < PHASES; i++) {
+            long bytes = phaseBytes[i] - frameStart[i];
+            if (i != FRAME && bytes > mostBytes) {
+                most = i;
+                mostBytes = bytes;
+            }
+        }
+        return most < 0 ? "between phases" : NAMES[most];
+    }
+
+    /** Keeps the player alive and firing, so there's always a fight to measure. */
+    private void script() {
+        Player player = screen.getPlayer();
+        player.health.hp = player.health.maxHp;
+
+        fireTimer -= DELTA_TIME;
+        if (fireTimer <= 0) {
+            screen.bullets.fire(player.transform.position.x, player.transform.position.y, true);
+            fireTimer += FIRE_DELAY;
+        }
+    }
+
+    @Override
+    public void begin(int phase) {
+        phaseReads[phase] = reads;
+        phaseStart[phase] = allocated();
+    }
+
+    @Override
+    public void end(int phase) {
+        long bytes = allocated() - phaseStart[phase] - measured(phaseReads[phase]);
+        if (frame >= warmup) phaseBytes[phase] += bytes;
+    }
+
+    /** @return Bytes the game thread has allocated so far */
+    private long allocated() {
+        reads++;
+        return threads.getThreadAllocatedBytes(thread);
+    }
+
+    /** @param start Readings taken before the measurement started
+     * @return Bytes allocated by every reading since, counting the ones the measurement started and ended with, as
+     * well as any phase inside it */
+    private long measured(long start) { return (reads - start) * overhead; }
+
+    /** @return Bytes a reading of the counter allocates by itself, so it can be taken off every measurement */
+    private long calibrate() {
+        /* Read it plenty first, so the JIT compiles the reading path now. Left to compile mid-run, the compiler's work
+         * was counted against the game thread and showed up as a ~900 byte frame just after warm-up */
+        for (int i = 0; i < WARM_READS; i++) allocated();
+
+        int reads = 1000;
+        long start = allocated();
+        for (int i = 0; i < reads - 1; i++) allocated();
+        return (allocated() - start) / reads;
+    }
+
+    /** Reports what each phase allocated and exits, failing if any frame went over the budget. */
+    private void finish() {
+        long perFrame = total / frames;
+        Gdx.app.log("Allocation", frames + " frames after " + warmup + " to warm up, " + perFrame + " bytes per frame on average, "
+                + worst + " at most, on frame " + worstFrame + ", in " + worstPhase + " (budget " + budget + ")");
+        Gdx.app.log("Allocation", "  score " + screen.getScore() + ", " + screen.director.enemies.size + " enemies, "
+                + screen.bullets.size + " bullets at the end");
+        for (int i = 0; i < PHASES; i++)
+            Gdx.app.log("Allocation", "  " + NAMES[i] + ": " + phaseBytes[i] / frames + " bytes per frame");
+
+        if (worst > budget) {
+            Gdx.app.error("Allocation", "Over budget by " + (worst - budget) + " bytes on frame " + worstFrame + ", in "
+                    + worstPhase + (perFrame > budget ? ", and by " + (perFrame - budget) + " bytes per frame on average" : ""));
+            System.exit(1);
+        }
+        Gdx.app.exit();
+    }
+}
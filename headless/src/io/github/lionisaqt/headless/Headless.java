@@ -0,0 +1,30 @@
+package io.github.lionisaqt.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import io.github.lionisaqt.JuicyShmup;
+
+/** Helpers for running the game without a display. */
+public final class Headless {
+    private Headless() { }
+
+    /** Stands in for GL so textures and lights can be made without a display. */
+    static void installGL() { Gdx.gl = Gdx.gl20 = new HeadlessGL20(); }
+
+    /** Sets up the headless backend without running its loop, and creates a headless game on the calling thread.
+     * Use this when something else drives the game, e.g. benchmarks. The working directory must be android/assets.
+     * @return The created game, with all assets loaded */
+    public static JuicyShmup createGame() {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = -1; // Never loop, the caller drives the game
+        new HeadlessApplication(new ApplicationAdapter() { }, config);
+        installGL();
+
+        JuicyShmup game = new JuicyShmup(true);
+        game.create();
+        return game;
+    }
+}
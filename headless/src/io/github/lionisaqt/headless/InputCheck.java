@@ -0,0 +1,82 @@
+package io.github.lionisaqt.headless;
+
+import io.github.lionisaqt.utils.Command;
+import io.github.lionisaqt.utils.InputHandoff;
+import io.github.lionisaqt.utils.InputSource;
+
+/** Checks that input sampled once a frame reaches the simulation once a tick the way it should, whether a frame runs
+ * no ticks or several: a tap on a frame with no tick still lands on the next one, a tap is only down for one tick
+ * even when its frame runs more, and a held button stays down for every tick. Exits with an error if any don't. */
+public class InputCheck {
+    /** Input that's set by hand before each frame, like a key that's just pressed. */
+    private static class Scripted implements InputSource {
+        int buttons;    // Buttons down for the next sample
+
+        @Override
+        public void sample(Command command) {
+            command.clear();
+            command.setButton(Command.SHOOT, (buttons & Command.SHOOT) != 0);
+            command.setButton(Command.SELF_DESTRUCT, (buttons & Command.SELF_DESTRUCT) != 0);
+        }
+
+        @Override
+        public boolean isFinished() { return false; }
+
+        @Override
+        public void dispose() { }
+    }
+
+    private final Scripted source = new Scripted();
+    private final InputHandoff handoff = new InputHandoff(source);
+    private final Command command = new Command();
+    private int failures;
+
+    /** Runs every check.
+     * @return Whether they all passed */
+    public boolean run() {
+        /* A tap on a frame with no tick is down for the next tick, and only that one */
+        frame(Command.SELF_DESTRUCT);
+        expect("tap, no ticks", ticks(0, Command.SELF_DESTRUCT), 0);
+        frame(0);
+        expect("tap, next frame", ticks(1, Command.SELF_DESTRUCT), 1);
+        frame(0);
+        expect("tap, frame after", ticks(1, Command.SELF_DESTRUCT), 0);
+
+        /* A tap on a frame with several ticks is only down for the first */
+        frame(Command.SELF_DESTRUCT);
+        expect("tap, 3 ticks", ticks(3, Command.SELF_DESTRUCT), 1);
+        frame(0);
+        expect("tap, after 3 ticks", ticks(2, Command.SELF_DESTRUCT), 0);
+
+        /* A held button is down for every tick, and a short press isn't lost */
+        frame(Command.SHOOT);
+        expect("held, 2 ticks", ticks(2, Command.SHOOT), 2);
+        frame(Command.SHOOT);
+        expect("held, no ticks", ticks(0, Command.SHOOT), 0);
+        frame(0);
+        expect("released, 2 ticks", ticks(2, Command.SHOOT), 1);
+        return failures == 0;
+    }
+
+    /** Samples a frame of input with the given buttons down. */
+    private void frame(int buttons) {
+        source.buttons = buttons;
+        handoff.post();
+    }
+
+    /** @return How many of the given number of ticks had the button down */
+    private int ticks(int count, int button) {
+        int down = 0;
+        for (int i = 0; i < count; i++) {
+            handoff.sample(command);
+            if (command.isDown(button)) down++;
+        }
+        return down;
+    }
+
+    private void expect(String name, int actual, int expected) {
+        if (actual == expected) return;
+        System.err.println("Input: " + name + ": down for " + actual + " ticks, expected " + expected);
+        failures++;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.lionisaqt.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import io.github.lionisaqt.JuicyShmup;
+import io.github.lionisaqt.screens.InGame;
+import io.github.lionisaqt.utils.PoolStats;
+
+/** Headless game that steps the in-game simulation a fixed number of frames with a fixed delta, or until its replay
+ * is over, then exits. With the same seed or replay, every run plays out the same way. */
+public class SimulationRunner extends JuicyShmup {
+    private int frames;             // Number of frames to simulate, cut short when a replay is over
+    private final float deltaTime;  // Simulated time per frame
+    private int frame;              // Frames simulated so far
+    private long startTime;         // When the first frame was simulated
+
+    public InGame screen;
+
+    /** Constructs a simulation runner.
+     * @param frames Number of frames to simulate
+     * @param deltaTime Simulated time per frame
+     * @param seed Seed for every random number in the run */
+    public SimulationRunner(int frames, float deltaTime, long seed) {
+        super(true);
+        this.frames = frames;
+        this.deltaTime = deltaTime;
+        random.setSeed(seed);
+    }
+
+    @Override
+    public void create() {
+        Headless.installGL();
+        super.create();
+        screen = new InGame(this);
+        setScreen(screen);
+        startTime = TimeUtils.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        if (frame < frames) {
+            screen.render(deltaTime);
+            if (screen.input.isFinished()) frames = frame + 1;
+            if (++frame == frames) finish();
+        }
+    }
+
+    /** Reports how the run went and exits. */
+    private void finish() {
+        float seconds = TimeUtils.timeSinceNanos(startTime) / 1000000000f;
+        Gdx.app.log("Simulation", frames + " frames in " + seconds + "s (" + (int)(frames / seconds) + " fps), run seed " + random.getSeed());
+        Gdx.app.log("Simulation", "Score " + screen.getScore() + ", " + screen.director.enemies.size + " enemies, " + screen.bullets.size + " bullets");
+        Gdx.app.log("Simulation", screen.eManager.liveEffects + " effects, " + screen.eManager.particles + " particles of "
+                + screen.eManager.particleBudget + ", detail " + screen.eManager.lod);
+        Gdx.app.log("Simulation", screen.getDrawCalls() + " draw calls for the sprites at the end");
+        Gdx.app.log("Simulation", screen.sounds.requested + " sounds asked for, " + screen.sounds.merged + " merged, "
+                + screen.sounds.played + " played, " + screen.sounds.stolen + " stolen, " + screen.sounds.dropped + " dropped");
+        Gdx.app.log("Simulation", screen.collisions.contacts + " contacts, at most " + screen.collisions.peak
+                + " after a step, " + screen.collisions.deaths + " deaths");
+
+        Array<PoolStats> pools = new Array<>();
+        screen.getPoolStats(pools);
+        for (PoolStats stats : pools) Gdx.app.log("Pools", stats.toString());
+        Gdx.app.exit();
+    }
+}